@@ -0,0 +1,84 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.grok;
+
+import org.elasticsearch.grok.Grok;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class GrokBenchmark {
+
+    private static final String APACHE_LOG_LINE = "83.149.9.216 - - [17/May/2015:10:05:03 +0000] " +
+        "\"GET /presentations/logstash-monitorama-2013/images/kibana-search.png HTTP/1.1\" 200 203023 " +
+        "\"http://semicomplete.com/presentations/logstash-monitorama-2013/\" " +
+        "\"Mozilla/5.0 (Macintosh; Intel Mac OS X 10_9_1) AppleWebKit/537.36 (KHTML, like Gecko) " +
+        "Chrome/32.0.1700.77 Safari/537.36\"";
+    private static final String SYSLOG_LINE = "Mar 12 12:27:00 server3 named[32172]: lame server resolving 'jakarta5.wasantara.net.id' " +
+        "(in 'wasantara.net.id'?): 202.159.65.171#53";
+    private static final String UNMATCHED_LINE = "this line does not look like any of the configured log formats at all";
+
+    private final Map<String, String> patternBank = Grok.getBuiltinPatterns();
+    private final Grok apacheLog = new Grok(patternBank, "%{COMBINEDAPACHELOG}");
+    private final Grok syslogLine = new Grok(patternBank, "%{SYSLOGLINE}");
+    // the ingest grok processor combines multiple patterns into a single alternation, with the most specific pattern first
+    private final Grok multiplePatterns = new Grok(patternBank,
+        "(?:%{COMBINEDAPACHELOG})|(?:%{COMMONAPACHELOG})|(?:%{SYSLOGLINE})");
+
+    @Benchmark
+    public Map<String, Object> capturesApacheLog() {
+        return apacheLog.captures(APACHE_LOG_LINE);
+    }
+
+    @Benchmark
+    public Map<String, Object> capturesSyslogLine() {
+        return syslogLine.captures(SYSLOG_LINE);
+    }
+
+    @Benchmark
+    public Map<String, Object> capturesMultiplePatternsFirstMatches() {
+        return multiplePatterns.captures(APACHE_LOG_LINE);
+    }
+
+    @Benchmark
+    public Map<String, Object> capturesMultiplePatternsLastMatches() {
+        return multiplePatterns.captures(SYSLOG_LINE);
+    }
+
+    @Benchmark
+    public Map<String, Object> capturesMultiplePatternsNoMatch() {
+        return multiplePatterns.captures(UNMATCHED_LINE);
+    }
+}
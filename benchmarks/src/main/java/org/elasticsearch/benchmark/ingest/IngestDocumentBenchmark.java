@@ -0,0 +1,108 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.ingest;
+
+import org.elasticsearch.ingest.IngestDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures field accesses on an {@link IngestDocument}, which parse the accessed path, from one thread and from as many threads
+ * as a write thread pool typically has. Compare the results with and without the cache of parsed field paths in
+ * {@link IngestDocument} to see what it saves, and whether its lookups contend across threads.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class IngestDocumentBenchmark {
+
+    // a processor that renders its field from a template accesses a different path for almost every document
+    @Param({"1", "10000"})
+    public int distinctPaths;
+
+    private IngestDocument ingestDocument;
+    private String[] paths;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> source = new HashMap<>();
+        Map<String, Object> http = new HashMap<>();
+        Map<String, Object> request = new HashMap<>();
+        request.put("method", "GET");
+        http.put("request", request);
+        source.put("http", http);
+        ingestDocument = new IngestDocument(source, new HashMap<>());
+        paths = new String[distinctPaths];
+        for (int i = 0; i < distinctPaths; i++) {
+            paths[i] = distinctPaths == 1 ? "http.request.method" : "http.request.method_" + i;
+            ingestDocument.setFieldValue(paths[i], "GET");
+        }
+    }
+
+    private String nextPath() {
+        String path = paths[next];
+        next = (next + 1) % paths.length;
+        return path;
+    }
+
+    @Benchmark
+    public Object getFieldValue() {
+        return ingestDocument.getFieldValue(nextPath(), Object.class);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object getFieldValueConcurrently() {
+        return ingestDocument.getFieldValue(nextPath(), Object.class);
+    }
+
+    @Benchmark
+    public boolean hasAndSetField() {
+        String path = nextPath();
+        ingestDocument.setFieldValue(path, "POST");
+        return ingestDocument.hasField(path);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean hasAndSetFieldConcurrently() {
+        String path = nextPath();
+        ingestDocument.setFieldValue(path, "POST");
+        return ingestDocument.hasField(path);
+    }
+}
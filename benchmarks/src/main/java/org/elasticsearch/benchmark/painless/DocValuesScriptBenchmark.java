@@ -0,0 +1,197 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.painless;
+
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.painless.PainlessScriptEngine;
+import org.elasticsearch.painless.spi.Whitelist;
+import org.elasticsearch.script.ScriptContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures painless scripts that read doc values the way score and aggregation scripts do, comparing dynamic ({@code def})
+ * access through {@code doc['field'].value} with statically typed access to the same values.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class DocValuesScriptBenchmark {
+
+    public abstract static class DocValuesScript {
+        private final Map<String, Object> params;
+        private final Map<String, ScriptDocValues<?>> doc;
+
+        public DocValuesScript(Map<String, Object> params, Map<String, ScriptDocValues<?>> doc) {
+            this.params = params;
+            this.doc = doc;
+        }
+
+        public Map<String, Object> getParams() {
+            return params;
+        }
+
+        public Map<String, ScriptDocValues<?>> getDoc() {
+            return doc;
+        }
+
+        public static final String[] PARAMETERS = new String[] {};
+        public abstract double execute();
+
+        public interface Factory {
+            DocValuesScript newInstance(Map<String, Object> params, Map<String, ScriptDocValues<?>> doc);
+        }
+
+        public static final ScriptContext<Factory> CONTEXT = new ScriptContext<>("doc_values_benchmark", Factory.class);
+    }
+
+    private static final int NUM_DOCS = 1024;
+
+    private final ScriptDocValues.Longs price = new ScriptDocValues.Longs(new SortedNumericDocValues() {
+        private int doc = -1;
+
+        @Override
+        public boolean advanceExact(int target) {
+            doc = target;
+            return true;
+        }
+
+        @Override
+        public long nextValue() {
+            return doc * 3L;
+        }
+
+        @Override
+        public int docValueCount() {
+            return 1;
+        }
+
+        @Override
+        public int docID() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int advance(int target) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long cost() {
+            return NUM_DOCS;
+        }
+    });
+    private final ScriptDocValues.Doubles rating = new ScriptDocValues.Doubles(new SortedNumericDoubleValues() {
+        private int doc = -1;
+
+        @Override
+        public boolean advanceExact(int target) {
+            doc = target;
+            return true;
+        }
+
+        @Override
+        public double nextValue() {
+            return doc / 7.0;
+        }
+
+        @Override
+        public int docValueCount() {
+            return 1;
+        }
+    });
+
+    private DocValuesScript dynamicAccess;
+    private DocValuesScript typedAccess;
+    private DocValuesScript fieldsLoop;
+    private int docId;
+
+    @Setup
+    public void setup() {
+        PainlessScriptEngine engine = new PainlessScriptEngine(Settings.EMPTY,
+            Collections.singletonMap(DocValuesScript.CONTEXT, Whitelist.BASE_WHITELISTS));
+        Map<String, ScriptDocValues<?>> doc = new HashMap<>();
+        doc.put("price", price);
+        doc.put("rating", rating);
+        Map<String, Object> params = new HashMap<>();
+        params.put("fields", Arrays.asList("price", "rating"));
+
+        dynamicAccess = engine.compile("dynamic", "doc['price'].value * 2 + doc['rating'].value",
+            DocValuesScript.CONTEXT, Collections.emptyMap()).newInstance(params, doc);
+        typedAccess = engine.compile("typed",
+            "ScriptDocValues.Longs price = doc['price']; ScriptDocValues.Doubles rating = doc['rating'];" +
+                "return price.getValue() * 2 + rating.getValue();",
+            DocValuesScript.CONTEXT, Collections.emptyMap()).newInstance(params, doc);
+        // a single call site that sees values of different types
+        fieldsLoop = engine.compile("loop", "double sum = 0; for (String field : params.fields) { sum += doc[field].value } return sum;",
+            DocValuesScript.CONTEXT, Collections.emptyMap()).newInstance(params, doc);
+    }
+
+    private void nextDoc() throws IOException {
+        docId = (docId + 1) % NUM_DOCS;
+        price.setNextDocId(docId);
+        rating.setNextDocId(docId);
+    }
+
+    @Benchmark
+    public double dynamicAccess() throws IOException {
+        nextDoc();
+        return dynamicAccess.execute();
+    }
+
+    @Benchmark
+    public double typedAccess() throws IOException {
+        nextDoc();
+        return typedAccess.execute();
+    }
+
+    @Benchmark
+    public double fieldsLoop() throws IOException {
+        nextDoc();
+        return fieldsLoop.execute();
+    }
+}
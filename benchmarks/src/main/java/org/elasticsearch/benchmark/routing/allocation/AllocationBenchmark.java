@@ -106,7 +106,11 @@ public class AllocationBenchmark {
         "       10|     10|        2|    50",
         "      100|      1|        2|    50",
         "      100|      3|        2|    50",
-        "      100|     10|        2|    50"
+        "      100|     10|        2|    50",
+
+        // large clusters
+        "      500|     10|        1|   100",
+        "     1000|     50|        1|   500"
     })
     public String indicesShardsReplicasNodes = "10|1|0|1";
 
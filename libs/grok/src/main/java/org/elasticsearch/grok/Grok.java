@@ -76,6 +76,7 @@ public final class Grok {
     private final Map<String, String> patternBank;
     private final boolean namedCaptures;
     private final Regex compiledExpression;
+    private final List<GrokMatchGroup> matchGroups;
     private final ThreadWatchdog threadWatchdog;
 
     public Grok(Map<String, String> patternBank, String grokPattern) {
@@ -104,6 +105,24 @@ public final class Grok {
         String expression = toRegex(grokPattern);
         byte[] expressionBytes = expression.getBytes(StandardCharsets.UTF_8);
         this.compiledExpression = new Regex(expressionBytes, 0, expressionBytes.length, Option.DEFAULT, UTF8Encoding.INSTANCE);
+        this.matchGroups = matchGroups(compiledExpression);
+    }
+
+    /**
+     * Resolves the named groups of a compiled expression once, so that {@link #captures(String)} only needs to look up the
+     * regions of the groups that matched rather than decoding and parsing every group name for every document.
+     */
+    private static List<GrokMatchGroup> matchGroups(Regex compiledExpression) {
+        if (compiledExpression.numberOfNames() == 0) {
+            return Collections.emptyList();
+        }
+        List<GrokMatchGroup> matchGroups = new ArrayList<>(compiledExpression.numberOfNames());
+        for (Iterator<NameEntry> entry = compiledExpression.namedBackrefIterator(); entry.hasNext();) {
+            NameEntry e = entry.next();
+            String groupName = new String(e.name, e.nameP, e.nameEnd - e.nameP, StandardCharsets.UTF_8);
+            matchGroups.add(new GrokMatchGroup(groupName, e.getBackRefs()));
+        }
+        return Collections.unmodifiableList(matchGroups);
     }
 
     /**
@@ -255,17 +274,14 @@ public final class Grok {
         } else if (result == Matcher.FAILED) {
             // TODO: I think we should throw an error here?
             return null;
-        } else if (compiledExpression.numberOfNames() > 0) {
+        } else if (matchGroups.isEmpty() == false) {
             Region region = matcher.getEagerRegion();
-            for (Iterator<NameEntry> entry = compiledExpression.namedBackrefIterator(); entry.hasNext();) {
-                NameEntry e = entry.next();
-                String groupName = new String(e.name, e.nameP, e.nameEnd - e.nameP, StandardCharsets.UTF_8);
-                for (int number : e.getBackRefs()) {
+            for (GrokMatchGroup matchGroup : matchGroups) {
+                for (int number : matchGroup.getBackRefs()) {
                     if (region.beg[number] >= 0) {
                         String matchValue = new String(textAsBytes, region.beg[number], region.end[number] - region.beg[number],
                             StandardCharsets.UTF_8);
-                        GrokMatchGroup match = new GrokMatchGroup(groupName, matchValue);
-                        fields.put(match.getName(), match.getValue());
+                        fields.put(matchGroup.getName(), matchGroup.getValue(matchValue));
                         break;
                     }
                 }
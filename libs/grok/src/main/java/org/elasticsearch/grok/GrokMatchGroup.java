@@ -19,14 +19,18 @@
 
 package org.elasticsearch.grok;
 
+/**
+ * A named capture group of a compiled grok expression. The field name and type of the group are parsed from the group
+ * name once, when the expression is compiled, so that extracting the captures of a match does not need to.
+ */
 final class GrokMatchGroup {
     private static final String DEFAULT_TYPE = "string";
     private final String patternName;
     private final String fieldName;
     private final String type;
-    private final String groupValue;
+    private final int[] backRefs;
 
-    GrokMatchGroup(String groupName, String groupValue) {
+    GrokMatchGroup(String groupName, int[] backRefs) {
         String[] parts = groupName.split(":");
         patternName = parts[0];
         if (parts.length >= 2) {
@@ -40,14 +44,21 @@ final class GrokMatchGroup {
         } else {
             type = DEFAULT_TYPE;
         }
-        this.groupValue = groupValue;
+        this.backRefs = backRefs;
     }
 
     public String getName() {
         return (fieldName == null) ? patternName : fieldName;
     }
 
-    public Object getValue() {
+    /**
+     * The numbers of the regex groups this named group may have been captured by.
+     */
+    int[] getBackRefs() {
+        return backRefs;
+    }
+
+    public Object getValue(String groupValue) {
         if (groupValue == null) { return null; }
 
         switch(type) {
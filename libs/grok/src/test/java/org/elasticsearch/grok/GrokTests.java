@@ -410,6 +410,29 @@ public class GrokTests extends ESTestCase {
         assertThat(grok.captures("12"), equalTo(expected));
     }
 
+    public void testCapturesReusedAcrossAlternatives() {
+        Map<String, String> bank = new HashMap<>();
+        bank.put("BASE10NUM", "(?<![0-9.+-])(?>[+-]?(?:(?:[0-9]+(?:\\.[0-9]+)?)|(?:\\.[0-9]+)))");
+        bank.put("NUMBER", "(?:%{BASE10NUM})");
+        bank.put("WORD", "\\b\\w+\\b");
+        Grok grok = new Grok(bank, "(?:%{NUMBER:value:int} %{WORD:unit})|(?:%{WORD:unit}=%{NUMBER:value:double})");
+
+        // the same compiled expression must extract and coerce the groups of whichever alternative matched
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> expected = new HashMap<>();
+            expected.put("value", 12);
+            expected.put("unit", "ms");
+            assertThat(grok.captures("12 ms"), equalTo(expected));
+
+            expected = new HashMap<>();
+            expected.put("value", 1.5);
+            expected.put("unit", "seconds");
+            assertThat(grok.captures("seconds=1.5"), equalTo(expected));
+
+            assertThat(grok.captures("-"), nullValue());
+        }
+    }
+
     public void testExponentialExpressions() {
         AtomicBoolean run = new AtomicBoolean(true); // to avoid a lingering thread when test has completed
 
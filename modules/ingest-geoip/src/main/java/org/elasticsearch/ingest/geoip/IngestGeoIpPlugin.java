@@ -169,16 +169,30 @@ public class IngestGeoIpPlugin extends Plugin implements IngestPlugin, Closeable
      * This cache differs from the maxmind's {@link NodeCache} such that this cache stores the deserialized Json objects to avoid the
      * cost of deserialization for each lookup (cached or not). This comes at slight expense of higher memory usage, but significant
      * reduction of CPU usage.
+     * Every cache hit updates the LRU list of the underlying {@link Cache} under a lock, so large caches are split into several
+     * independent caches by key, which keeps concurrent lookups from different ingest threads from contending on a single lock.
      */
     static class GeoIpCache {
-        private final Cache<CacheKey, AbstractResponse> cache;
+        // the maximum number of independent caches, and the minimum number of entries each of them should hold
+        private static final int MAX_STRIPES = 16;
+        private static final long MIN_STRIPE_SIZE = 64;
+
+        private final Cache<CacheKey, AbstractResponse>[] caches;
 
         //package private for testing
+        @SuppressWarnings("unchecked")
         GeoIpCache(long maxSize) {
             if (maxSize < 0) {
                 throw new IllegalArgumentException("geoip max cache size must be 0 or greater");
             }
-            this.cache = CacheBuilder.<CacheKey, AbstractResponse>builder().setMaximumWeight(maxSize).build();
+            int stripes = MAX_STRIPES;
+            while (stripes > 1 && maxSize / stripes < MIN_STRIPE_SIZE) {
+                stripes >>>= 1;
+            }
+            this.caches = new Cache[stripes];
+            for (int i = 0; i < stripes; i++) {
+                caches[i] = CacheBuilder.<CacheKey, AbstractResponse>builder().setMaximumWeight(maxSize / stripes).build();
+            }
         }
 
         <T extends AbstractResponse> T putIfAbsent(InetAddress ip, Class<T> responseType,
@@ -186,6 +200,7 @@ public class IngestGeoIpPlugin extends Plugin implements IngestPlugin, Closeable
 
             //can't use cache.computeIfAbsent due to the elevated permissions for the jackson (run via the cache loader)
             CacheKey<T> cacheKey = new CacheKey<>(ip, responseType);
+            Cache<CacheKey, AbstractResponse> cache = cacheFor(cacheKey);
             //intentionally non-locking for simplicity...it's OK if we re-put the same key/value in the cache during a race condition.
             AbstractResponse response = cache.get(cacheKey);
             if (response == null) {
@@ -198,7 +213,35 @@ public class IngestGeoIpPlugin extends Plugin implements IngestPlugin, Closeable
         //only useful for testing
         <T extends AbstractResponse> T get(InetAddress ip, Class<T> responseType) {
             CacheKey<T> cacheKey = new CacheKey<>(ip, responseType);
-            return responseType.cast(cache.get(cacheKey));
+            return responseType.cast(cacheFor(cacheKey).get(cacheKey));
+        }
+
+        /**
+         * Returns the hits, misses and evictions of all lookups done through this cache.
+         */
+        Cache.CacheStats stats() {
+            long hits = 0;
+            long misses = 0;
+            long evictions = 0;
+            for (Cache<CacheKey, AbstractResponse> cache : caches) {
+                Cache.CacheStats stats = cache.stats();
+                hits += stats.getHits();
+                misses += stats.getMisses();
+                evictions += stats.getEvictions();
+            }
+            return new Cache.CacheStats(hits, misses, evictions);
+        }
+
+        //package private for testing
+        int numberOfStripes() {
+            return caches.length;
+        }
+
+        private Cache<CacheKey, AbstractResponse> cacheFor(CacheKey<?> cacheKey) {
+            // spread the hash so that keys that only differ in their high bits do not all end up in the same cache
+            int hash = cacheKey.hashCode();
+            hash ^= hash >>> 16;
+            return caches[hash & (caches.length - 1)];
         }
 
          /**
@@ -49,6 +49,29 @@ public class IngestGeoIpPluginTests extends ESTestCase {
         assertNotSame(response1, cache.get(InetAddresses.forString("127.0.0.1"), AbstractResponse.class));
     }
 
+    public void testStripedCache() {
+        assertEquals(1, new GeoIpCache(0).numberOfStripes());
+        assertEquals(1, new GeoIpCache(100).numberOfStripes());
+        assertEquals(8, new GeoIpCache(1000).numberOfStripes());
+        assertEquals(16, new GeoIpCache(10000).numberOfStripes());
+
+        GeoIpCache cache = new GeoIpCache(10000);
+        int numAddresses = randomIntBetween(1, 256);
+        AbstractResponse[] responses = new AbstractResponse[numAddresses];
+        for (int i = 0; i < numAddresses; i++) {
+            responses[i] = mock(AbstractResponse.class);
+            final AbstractResponse response = responses[i];
+            assertSame(response, cache.putIfAbsent(InetAddresses.forString("10.0.0." + i), AbstractResponse.class, ip -> response));
+        }
+        for (int i = 0; i < numAddresses; i++) {
+            assertSame(responses[i], cache.putIfAbsent(InetAddresses.forString("10.0.0." + i), AbstractResponse.class,
+                ip -> { throw new AssertionError("response should have been cached"); }));
+        }
+        assertEquals(numAddresses, cache.stats().getHits());
+        assertEquals(numAddresses, cache.stats().getMisses());
+        assertEquals(0, cache.stats().getEvictions());
+    }
+
     public void testThrowsFunctionsException() {
         GeoIpCache cache = new GeoIpCache(1);
         IllegalArgumentException ex = expectThrows(IllegalArgumentException.class,
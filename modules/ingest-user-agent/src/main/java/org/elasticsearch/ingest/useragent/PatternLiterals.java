@@ -0,0 +1,314 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.useragent;
+
+/**
+ * Extracts a literal from a regular expression that every string matched by the expression must contain. The user agent parser
+ * checks for this literal before evaluating a pattern, which rules out most of the patterns for a given user agent string without
+ * running them.
+ *
+ * The extraction is conservative: groups are only looked into when they must match exactly once or at least once and have no
+ * alternatives, and expressions with top level alternations or constructs that are not understood here have no literal at all.
+ */
+final class PatternLiterals {
+
+    private final String regex;
+    private final StringBuilder current = new StringBuilder();
+    private String longest;
+    private boolean lastIsLiteral;
+
+    private PatternLiterals(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * Returns the longest literal that every match of the given regular expression contains, or {@code null} if there is none or it
+     * could not be determined.
+     */
+    static String requiredLiteral(String regex) {
+        if (regex.contains("\\Q") || hasInlineFlags(regex)) {
+            // quoted sections and inline flags (like comments mode) change how the rest of the expression is read
+            return null;
+        }
+        PatternLiterals literals = new PatternLiterals(regex);
+        if (literals.hasAlternation(0, regex.length()) || literals.collect(0, regex.length()) == false) {
+            return null;
+        }
+        literals.endRun();
+        return literals.longest;
+    }
+
+    private static boolean hasInlineFlags(String regex) {
+        for (int i = regex.indexOf("(?"); i != -1 && i + 2 < regex.length(); i = regex.indexOf("(?", i + 1)) {
+            int backslashes = 0;
+            for (int j = i - 1; j >= 0 && regex.charAt(j) == '\\'; j--) {
+                backslashes++;
+            }
+            char c = regex.charAt(i + 2);
+            if (backslashes % 2 == 0 && (Character.isLetter(c) || c == '-')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the literals of the expression between {@code start} and {@code end}. Returns {@code false} if the expression contains
+     * constructs that are not understood.
+     */
+    private boolean collect(int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 >= end) {
+                        return false;
+                    }
+                    char escaped = regex.charAt(i + 1);
+                    if (Character.isLetterOrDigit(escaped) == false) {
+                        appendLiteral(escaped);
+                        i += 2;
+                    } else {
+                        i = skipEscape(i);
+                        if (i == -1) {
+                            return false;
+                        }
+                        endRun();
+                    }
+                    break;
+                case '?':
+                case '*':
+                case '+':
+                    dropQuantified();
+                    i++;
+                    break;
+                case '{':
+                    int close = regex.indexOf('}', i);
+                    if (close == -1 || close >= end) {
+                        return false;
+                    }
+                    dropQuantified();
+                    i = close + 1;
+                    break;
+                case '[':
+                    i = skipCharacterClass(i);
+                    if (i == -1) {
+                        return false;
+                    }
+                    endRun();
+                    break;
+                case '(':
+                    i = collectGroup(i, end);
+                    if (i == -1) {
+                        return false;
+                    }
+                    break;
+                case '.':
+                case '^':
+                case '$':
+                    endRun();
+                    i++;
+                    break;
+                case '|':
+                case ')':
+                case ']':
+                case '}':
+                    return false;
+                default:
+                    appendLiteral(c);
+                    i++;
+                    break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the literals of the group starting at {@code start}, and returns the position after the group or -1 if the group is
+     * not understood.
+     */
+    private int collectGroup(int start, int end) {
+        int groupEnd = skipGroup(start);
+        if (groupEnd == -1 || groupEnd > end) {
+            return -1;
+        }
+        int bodyStart = start + 1;
+        int bodyEnd = groupEnd - 1;
+        if (regex.startsWith("?", bodyStart)) {
+            if (regex.startsWith("?:", bodyStart) || regex.startsWith("?>", bodyStart)) {
+                bodyStart += 2;
+            } else if (regex.startsWith("?<", bodyStart) && bodyStart + 2 < bodyEnd && Character.isLetter(regex.charAt(bodyStart + 2))) {
+                int nameEnd = regex.indexOf('>', bodyStart);
+                if (nameEnd == -1 || nameEnd >= bodyEnd) {
+                    return -1;
+                }
+                bodyStart = nameEnd + 1;
+            } else {
+                // look ahead and look behind do not consume any characters
+                endRun();
+                return groupEnd;
+            }
+        }
+        char quantifier = groupEnd < end ? regex.charAt(groupEnd) : 0;
+        boolean optional = quantifier == '?' || quantifier == '*'
+            || (quantifier == '{' && groupEnd + 1 < end && regex.charAt(groupEnd + 1) == '0');
+        boolean repeated = quantifier == '+' || (quantifier == '{' && optional == false);
+        if (optional || hasAlternation(bodyStart, bodyEnd)) {
+            endRun();
+            return groupEnd;
+        }
+        if (repeated) {
+            // the literals of a repeated group are required, but do not continue the literals around the group
+            endRun();
+        }
+        if (collect(bodyStart, bodyEnd) == false) {
+            return -1;
+        }
+        if (repeated) {
+            endRun();
+        }
+        return groupEnd;
+    }
+
+    private boolean hasAlternation(int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '[') {
+                i = skipCharacterClass(i);
+            } else if (c == '(') {
+                i = skipGroup(i);
+            } else if (c == '|') {
+                return true;
+            } else {
+                i++;
+            }
+            if (i == -1) {
+                // not understood, treat it like an alternation so that no literal is extracted
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the position after the escape sequence with a letter or digit starting at {@code start}, or -1 if it is not understood.
+     */
+    private int skipEscape(int start) {
+        switch (regex.charAt(start + 1)) {
+            case 'd': case 'D': case 's': case 'S': case 'w': case 'W': case 'b': case 'B':
+            case 't': case 'n': case 'r': case 'f': case 'a': case 'e':
+                return start + 2;
+            case 'p': case 'P':
+                if (start + 2 < regex.length() && regex.charAt(start + 2) == '{') {
+                    int end = regex.indexOf('}', start + 2);
+                    return end == -1 ? -1 : end + 1;
+                }
+                return start + 3;
+            default:
+                // back references, octal, hex and unicode escapes, ...
+                return -1;
+        }
+    }
+
+    /**
+     * Returns the position after the character class starting at {@code start}, or -1 if it cannot be skipped safely.
+     */
+    private int skipCharacterClass(int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            return -1;
+        }
+        int depth = 1;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position after the group starting at {@code start}, or -1 if it cannot be skipped safely.
+     */
+    private int skipGroup(int start) {
+        int i = start + 1;
+        int depth = 1;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            } else if (c == '[') {
+                i = skipCharacterClass(i);
+                if (i == -1) {
+                    return -1;
+                }
+                continue;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private void appendLiteral(char c) {
+        current.append(c);
+        lastIsLiteral = true;
+    }
+
+    private void dropQuantified() {
+        if (lastIsLiteral) {
+            // the quantified character may not be part of the match
+            current.setLength(current.length() - 1);
+        }
+        endRun();
+    }
+
+    private void endRun() {
+        if (current.length() > 0 && (longest == null || current.length() > longest.length())) {
+            longest = current.toString();
+        }
+        current.setLength(0);
+        lastIsLiteral = false;
+    }
+}
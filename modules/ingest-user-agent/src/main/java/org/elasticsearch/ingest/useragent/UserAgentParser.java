@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -164,9 +165,10 @@ final class UserAgentParser {
         Details details = cache.get(name, agentString);
 
         if (details == null) {
-            VersionedName userAgent = findMatch(uaPatterns, agentString);
-            VersionedName operatingSystem = findMatch(osPatterns, agentString);
-            VersionedName device = findMatch(devicePatterns, agentString);
+            String lowerCaseAgentString = agentString.toLowerCase(Locale.ROOT);
+            VersionedName userAgent = findMatch(uaPatterns, agentString, lowerCaseAgentString);
+            VersionedName operatingSystem = findMatch(osPatterns, agentString, lowerCaseAgentString);
+            VersionedName device = findMatch(devicePatterns, agentString, lowerCaseAgentString);
 
             details = new Details(userAgent, operatingSystem, device);
 
@@ -176,9 +178,12 @@ final class UserAgentParser {
         return details;
     }
 
-    private VersionedName findMatch(List<UserAgentSubpattern> possiblePatterns, String agentString) {
+    private VersionedName findMatch(List<UserAgentSubpattern> possiblePatterns, String agentString, String lowerCaseAgentString) {
         VersionedName name;
         for (UserAgentSubpattern pattern : possiblePatterns) {
+            if (pattern.mayMatch(agentString, lowerCaseAgentString) == false) {
+                continue;
+            }
             name = pattern.match(agentString);
 
             if (name != null) {
@@ -222,11 +227,21 @@ final class UserAgentParser {
      */
     static final class UserAgentSubpattern {
         private final Pattern pattern;
+        // a literal every match of the pattern contains, lower cased if the pattern is case insensitive
+        private final String requiredLiteral;
+        private final boolean caseInsensitive;
         private final String nameReplacement, v1Replacement, v2Replacement, v3Replacement, v4Replacement;
 
         UserAgentSubpattern(Pattern pattern, String nameReplacement,
                 String v1Replacement, String v2Replacement, String v3Replacement, String v4Replacement) {
           this.pattern = pattern;
+          this.caseInsensitive = (pattern.flags() & Pattern.CASE_INSENSITIVE) != 0;
+          String literal = PatternLiterals.requiredLiteral(pattern.pattern());
+          if (literal != null && caseInsensitive) {
+            // case insensitive patterns only fold ascii characters, which lower case the same way in any context
+            literal = literal.chars().allMatch(c -> c < 128) ? literal.toLowerCase(Locale.ROOT) : null;
+          }
+          this.requiredLiteral = literal;
           this.nameReplacement = nameReplacement;
           this.v1Replacement = v1Replacement;
           this.v2Replacement = v2Replacement;
@@ -234,6 +249,21 @@ final class UserAgentParser {
           this.v4Replacement = v4Replacement;
         }
 
+        /**
+         * Cheaply checks whether the pattern can match the given user agent string, which is much faster than evaluating the
+         * pattern for the large majority of patterns that do not match.
+         */
+        boolean mayMatch(String agentString, String lowerCaseAgentString) {
+          if (requiredLiteral == null) {
+            return true;
+          }
+          return (caseInsensitive ? lowerCaseAgentString : agentString).contains(requiredLiteral);
+        }
+
+        String getRequiredLiteral() {
+          return requiredLiteral;
+        }
+
         public VersionedName match(String agentString) {
           String name = null, major = null, minor = null, patch = null, build = null;
           Matcher matcher = pattern.matcher(agentString);
@@ -0,0 +1,103 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.useragent;
+
+import org.elasticsearch.ingest.useragent.UserAgentParser.UserAgentSubpattern;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PatternLiteralsTests extends ESTestCase {
+
+    public void testLiterals() {
+        assertThat(PatternLiterals.requiredLiteral("rekonq"), equalTo("rekonq"));
+        assertThat(PatternLiterals.requiredLiteral("(Firefox)/(\\d+)\\.(\\d+)"), equalTo("Firefox/"));
+        assertThat(PatternLiterals.requiredLiteral("(BrowseX) \\((\\d+)\\.(\\d+)"), equalTo("BrowseX ("));
+        assertThat(PatternLiterals.requiredLiteral("; *(Q[Mm]obile)_([^_]+)_([^_]+) Build"), equalTo("obile_"));
+        assertThat(PatternLiterals.requiredLiteral("(?:ZTE)?(Blade) Build"), equalTo("Blade Build"));
+        assertThat(PatternLiterals.requiredLiteral("(?<name>Kindle)(?=/)Fire"), equalTo("Kindle"));
+        assertThat(PatternLiterals.requiredLiteral("Opera Mini/\\d+"), equalTo("Opera Mini/"));
+        assertThat(PatternLiterals.requiredLiteral("(Chrome|Chromium)/(\\d+)"), equalTo("/"));
+    }
+
+    public void testQuantifiedCharactersAreNotRequired() {
+        assertThat(PatternLiterals.requiredLiteral("Versions?/"), equalTo("Version"));
+        assertThat(PatternLiterals.requiredLiteral("Tab*let"), equalTo("let"));
+        assertThat(PatternLiterals.requiredLiteral("Galaxy\\.{0,2}Tab"), equalTo("Galaxy"));
+        assertThat(PatternLiterals.requiredLiteral("Mobi(le)?Safari"), equalTo("Safari"));
+        assertThat(PatternLiterals.requiredLiteral("x(ab)+yz"), equalTo("ab"));
+    }
+
+    public void testNoLiterals() {
+        assertThat(PatternLiterals.requiredLiteral("(Chrome|Chromium)(?:/\\d+)?"), nullValue());
+        assertThat(PatternLiterals.requiredLiteral("Chrome|Chromium"), nullValue());
+        assertThat(PatternLiterals.requiredLiteral("(?i)chrome"), nullValue());
+        assertThat(PatternLiterals.requiredLiteral("\\Qa.b\\E"), nullValue());
+        assertThat(PatternLiterals.requiredLiteral("(a)\\1"), nullValue());
+        assertThat(PatternLiterals.requiredLiteral("\\x41pple"), nullValue());
+        assertThat(PatternLiterals.requiredLiteral("[A-Z]\\d+"), nullValue());
+    }
+
+    public void testDefaultPatternsNeverSkipAMatch() {
+        UserAgentParser parser = new UserAgentParser(randomAlphaOfLength(10),
+            UserAgentProcessor.class.getResourceAsStream("/regexes.yml"), new UserAgentCache(0));
+        List<UserAgentSubpattern> patterns = new ArrayList<>();
+        patterns.addAll(parser.getUaPatterns());
+        patterns.addAll(parser.getOsPatterns());
+        patterns.addAll(parser.getDevicePatterns());
+
+        List<String> userAgents = Arrays.asList(
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_9_2) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/33.0.1750.149 Safari/537.36",
+            "Mozilla/5.0 (Linux; U; Android 3.0; en-us; Xoom Build/HRI39) AppleWebKit/525.10+ (KHTML, like Gecko) Version/3.0.4 " +
+                "Mobile Safari/523.12.2",
+            "Mozilla/5.0 (compatible; EasouSpider; +http://www.easou.com/search/spider.html)",
+            "Mozilla/5.0 (Windows NT 6.1; WOW64; Trident/7.0; rv:11.0) like Gecko",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 12_3_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/12.1.1 " +
+                "Mobile/15E148 Safari/604.1",
+            "Mozilla/5.0 (Linux; Android 7.0; SAMSUNG SM-G930F Build/NRD90M) AppleWebKit/537.36 (KHTML, like Gecko) " +
+                "SamsungBrowser/9.2 Chrome/67.0.3396.87 Mobile Safari/537.36",
+            "Mozilla/5.0 (BlackBerry; U; BlackBerry 9900; en) AppleWebKit/534.11+ (KHTML, like Gecko) Version/7.1.0.346 " +
+                "Mobile Safari/534.11+",
+            "Mozilla/5.0 (Linux; Android 7.1.1; KFSUWI) AppleWebKit/537.36 (KHTML, like Gecko) Silk/76.3.4 like " +
+                "Chrome/76.0.3809.132 Safari/537.36",
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+            "Opera/9.80 (Windows NT 6.1; WOW64) Presto/2.12.388 Version/12.18",
+            "CFNetwork/978.0.7 Darwin/18.6.0",
+            "Pingdom.com_bot_version_1.4_(http://www.pingdom.com/)",
+            "Microsoft Office/16.0 (Windows NT 10.0; Microsoft Outlook 16.0.4266; Pro)",
+            "curl/7.64.1",
+            randomUnicodeOfLengthBetween(0, 100));
+        for (String userAgent : userAgents) {
+            String lowerCaseUserAgent = userAgent.toLowerCase(Locale.ROOT);
+            for (UserAgentSubpattern pattern : patterns) {
+                if (pattern.match(userAgent) != null) {
+                    assertTrue("pattern with literal [" + pattern.getRequiredLiteral() + "] skipped for [" + userAgent + "]",
+                        pattern.mayMatch(userAgent, lowerCaseUserAgent));
+                }
+            }
+        }
+    }
+}
@@ -81,6 +81,9 @@ public class PendingClusterTasksResponse extends ActionResponse implements Itera
             builder.field(Fields.EXECUTING, pendingClusterTask.isExecuting());
             builder.field(Fields.TIME_IN_QUEUE_MILLIS, pendingClusterTask.getTimeInQueueInMillis());
             builder.field(Fields.TIME_IN_QUEUE, pendingClusterTask.getTimeInQueue());
+            builder.field(Fields.BATCH_SIZE, pendingClusterTask.getBatchSize());
+            builder.field(Fields.BATCH_TIME_IN_QUEUE_MILLIS, pendingClusterTask.getBatchTimeInQueueInMillis());
+            builder.field(Fields.BATCH_TIME_IN_QUEUE, pendingClusterTask.getBatchTimeInQueue());
             builder.endObject();
         }
         builder.endArray();
@@ -97,6 +100,9 @@ public class PendingClusterTasksResponse extends ActionResponse implements Itera
         static final String SOURCE = "source";
         static final String TIME_IN_QUEUE_MILLIS = "time_in_queue_millis";
         static final String TIME_IN_QUEUE = "time_in_queue";
+        static final String BATCH_SIZE = "batch_size";
+        static final String BATCH_TIME_IN_QUEUE_MILLIS = "batch_time_in_queue_millis";
+        static final String BATCH_TIME_IN_QUEUE = "batch_time_in_queue";
 
     }
 
@@ -20,6 +20,8 @@
 package org.elasticsearch.cluster.action.index;
 
 import org.elasticsearch.action.admin.indices.mapping.put.PutMappingRequestBuilder;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.action.support.master.AcknowledgedResponse;
 import org.elasticsearch.action.support.master.MasterNodeRequest;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.IndicesAdminClient;
@@ -34,6 +36,10 @@ import org.elasticsearch.index.Index;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.Mapping;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Called by shards in the cluster when their mapping was dynamically updated and it needs to be updated
  * in the cluster state meta data (and broadcast to all members).
@@ -46,6 +52,8 @@ public class MappingUpdatedAction {
 
     private IndicesAdminClient client;
     private volatile TimeValue dynamicMappingUpdateTimeout;
+    // mapping updates that are currently sent to the master, shared by all callers that need the exact same update
+    private final ConcurrentMap<PendingUpdateKey, PlainActionFuture<AcknowledgedResponse>> inFlightUpdates = new ConcurrentHashMap<>();
 
     @Inject
     public MappingUpdatedAction(Settings settings, ClusterSettings clusterSettings) {
@@ -62,11 +70,8 @@ public class MappingUpdatedAction {
         this.client = client.admin().indices();
     }
 
-    private PutMappingRequestBuilder updateMappingRequest(Index index, String type, Mapping mappingUpdate, final TimeValue timeout) {
-        if (type.equals(MapperService.DEFAULT_MAPPING)) {
-            throw new IllegalArgumentException("_default_ mapping should not be updated");
-        }
-        return client.preparePutMapping().setConcreteIndex(index).setType(type).setSource(mappingUpdate.toString(), XContentType.JSON)
+    private PutMappingRequestBuilder updateMappingRequest(Index index, String type, String mappingSource, final TimeValue timeout) {
+        return client.preparePutMapping().setConcreteIndex(index).setType(type).setSource(mappingSource, XContentType.JSON)
                 .setMasterNodeTimeout(timeout).setTimeout(TimeValue.ZERO);
     }
 
@@ -83,8 +88,62 @@ public class MappingUpdatedAction {
      * but not for the mapping update to be applied on all nodes. The timeout specified by
      * {@code timeout} is the master node timeout ({@link MasterNodeRequest#masterNodeTimeout()}),
      * potentially waiting for a master node to be available.
+     *
+     * Concurrent callers that need the very same mapping update on the same index and type (e.g. several shards
+     * of an index that dynamically introduced the same field) share a single request to the master and are all
+     * released once it completes. Callers that join an update that is already in flight wait for at most
+     * {@code masterNodeTimeout}.
      */
     public void updateMappingOnMaster(Index index, String type, Mapping mappingUpdate, TimeValue masterNodeTimeout) {
-        updateMappingRequest(index, type, mappingUpdate, masterNodeTimeout).get();
+        if (type.equals(MapperService.DEFAULT_MAPPING)) {
+            throw new IllegalArgumentException("_default_ mapping should not be updated");
+        }
+        final String mappingSource = mappingUpdate.toString();
+        final PendingUpdateKey key = new PendingUpdateKey(index, type, mappingSource);
+        final PlainActionFuture<AcknowledgedResponse> future = PlainActionFuture.newFuture();
+        final PlainActionFuture<AcknowledgedResponse> inFlight = inFlightUpdates.putIfAbsent(key, future);
+        if (inFlight != null) {
+            inFlight.actionGet(masterNodeTimeout);
+            return;
+        }
+        try {
+            updateMappingRequest(index, type, mappingSource, masterNodeTimeout).execute(future);
+            future.actionGet();
+        } catch (Exception e) {
+            // make sure that callers waiting on this update are released
+            future.onFailure(e);
+            throw e;
+        } finally {
+            inFlightUpdates.remove(key, future);
+        }
+    }
+
+    private static final class PendingUpdateKey {
+        private final Index index;
+        private final String type;
+        private final String mappingSource;
+
+        PendingUpdateKey(Index index, String type, String mappingSource) {
+            this.index = index;
+            this.type = type;
+            this.mappingSource = mappingSource;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PendingUpdateKey that = (PendingUpdateKey) o;
+            return index.equals(that.index) && type.equals(that.type) && mappingSource.equals(that.mappingSource);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, type, mappingSource);
+        }
     }
 }
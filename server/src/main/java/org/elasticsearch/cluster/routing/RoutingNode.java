@@ -27,7 +27,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A {@link RoutingNode} represents a cluster node associated with a single {@link DiscoveryNode} including all shards
@@ -41,6 +43,12 @@ public class RoutingNode implements Iterable<ShardRouting> {
 
     private final LinkedHashMap<ShardId, ShardRouting> shards; // LinkedHashMap to preserve order
 
+    // the shards that are moving to or away from this node, kept up to date with the shards above so that these can be
+    // looked up without iterating over all the shards on the node
+    private final LinkedHashSet<ShardRouting> initializingShards;
+
+    private final LinkedHashSet<ShardRouting> relocatingShards;
+
     public RoutingNode(String nodeId, DiscoveryNode node, ShardRouting... shards) {
         this(nodeId, node, buildShardRoutingMap(shards));
     }
@@ -49,6 +57,11 @@ public class RoutingNode implements Iterable<ShardRouting> {
         this.nodeId = nodeId;
         this.node = node;
         this.shards = shards;
+        this.initializingShards = new LinkedHashSet<>();
+        this.relocatingShards = new LinkedHashSet<>();
+        for (ShardRouting shardRouting : shards.values()) {
+            addMovingShard(shardRouting);
+        }
     }
 
     private static LinkedHashMap<ShardId, ShardRouting> buildShardRoutingMap(ShardRouting... shardRoutings) {
@@ -104,6 +117,7 @@ public class RoutingNode implements Iterable<ShardRouting> {
                 + "] where it already exists. current [" + shards.get(shard.shardId()) + "]. new [" + shard + "]");
         }
         shards.put(shard.shardId(), shard);
+        addMovingShard(shard);
     }
 
     void update(ShardRouting oldShard, ShardRouting newShard) {
@@ -114,11 +128,44 @@ public class RoutingNode implements Iterable<ShardRouting> {
         }
         ShardRouting previousValue = shards.put(newShard.shardId(), newShard);
         assert previousValue == oldShard : "expected shard " + previousValue + " but was " + oldShard;
+        removeMovingShard(previousValue);
+        addMovingShard(newShard);
     }
 
     void remove(ShardRouting shard) {
         ShardRouting previousValue = shards.remove(shard.shardId());
         assert previousValue == shard : "expected shard " + previousValue + " but was " + shard;
+        removeMovingShard(previousValue);
+    }
+
+    private void addMovingShard(ShardRouting shard) {
+        if (shard.initializing()) {
+            initializingShards.add(shard);
+        } else if (shard.relocating()) {
+            relocatingShards.add(shard);
+        }
+    }
+
+    private void removeMovingShard(ShardRouting shard) {
+        if (shard.initializing()) {
+            initializingShards.remove(shard);
+        } else if (shard.relocating()) {
+            relocatingShards.remove(shard);
+        }
+    }
+
+    /**
+     * Returns the shards that are initializing on this node, including the targets of relocations to this node.
+     */
+    public Set<ShardRouting> initializingShards() {
+        return Collections.unmodifiableSet(initializingShards);
+    }
+
+    /**
+     * Returns the shards that are relocating away from this node.
+     */
+    public Set<ShardRouting> relocatingShards() {
+        return Collections.unmodifiableSet(relocatingShards);
     }
 
     /**
@@ -70,7 +70,7 @@ public class RoutingNodes implements Iterable<RoutingNode> {
 
     private final UnassignedShards unassignedShards = new UnassignedShards(this);
 
-    private final Map<ShardId, List<ShardRouting>> assignedShards = new HashMap<>();
+    private final Map<ShardId, List<ShardRouting>> assignedShards;
 
     private final boolean readOnly;
 
@@ -91,10 +91,22 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         this.readOnly = readOnly;
         final RoutingTable routingTable = clusterState.routingTable();
 
-        Map<String, LinkedHashMap<ShardId, ShardRouting>> nodesToShards = new HashMap<>();
+        // size the maps upfront to avoid rehashing them over and over again while filling them in on large clusters. There is
+        // at most one entry per shard id in the assigned shards, and the nodes are sized for the average number of copies per
+        // node, which they only exceed when the cluster is unbalanced.
+        int shardIds = 0;
+        for (ObjectCursor<IndexRoutingTable> indexRoutingTable : routingTable.indicesRouting().values()) {
+            shardIds += indexRoutingTable.value.shards().size();
+        }
+        this.assignedShards = new HashMap<>(mapCapacity(shardIds));
+        final int dataNodes = clusterState.nodes().getDataNodes().size();
+        final int expectedShardsPerNode = dataNodes == 0 ? 0 : clusterState.metaData().getTotalNumberOfShards() / dataNodes + 1;
+
+        Map<String, LinkedHashMap<ShardId, ShardRouting>> nodesToShards = new HashMap<>(mapCapacity(dataNodes));
         // fill in the nodeToShards with the "live" nodes
         for (ObjectCursor<DiscoveryNode> cursor : clusterState.nodes().getDataNodes().values()) {
-            nodesToShards.put(cursor.value.getId(), new LinkedHashMap<>()); // LinkedHashMap to preserve order
+            // LinkedHashMap to preserve order
+            nodesToShards.put(cursor.value.getId(), new LinkedHashMap<>(mapCapacity(expectedShardsPerNode)));
         }
 
         // fill in the inverse of node -> shards allocated
@@ -147,6 +159,13 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         }
     }
 
+    /**
+     * Returns the initial capacity of a hash map that can hold the given number of entries without being resized.
+     */
+    private static int mapCapacity(int expectedSize) {
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+
     private void addRecovery(ShardRouting routing) {
         updateRecoveryCounts(routing, true, findAssignedPrimaryIfPeerRecovery(routing));
     }
@@ -719,7 +738,8 @@ public class RoutingNodes implements Iterable<RoutingNode> {
 
     private void assignedShardsAdd(ShardRouting shard) {
         assert shard.unassigned() == false : "unassigned shard " + shard + " cannot be added to list of assigned shards";
-        List<ShardRouting> shards = assignedShards.computeIfAbsent(shard.shardId(), k -> new ArrayList<>());
+        // most shard ids have a primary and a single replica assigned
+        List<ShardRouting> shards = assignedShards.computeIfAbsent(shard.shardId(), k -> new ArrayList<>(2));
         assert assertInstanceNotInList(shard, shards) : "shard " + shard + " cannot appear twice in list of assigned shards";
         shards.add(shard);
     }
@@ -464,6 +464,12 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             final ModelNode[] modelNodes = sorter.modelNodes;
             final float[] weights = sorter.weights;
             for (String index : buildWeightOrderedIndices()) {
+                if (isBalanced(index)) {
+                    // no pair of nodes exceeds the threshold for this index, so none of its shards can be relocated
+                    // and there is no need to consult the deciders for every node. Skipping the index leaves modelNodes
+                    // in a different order than balancing it would, which is fine as the sorter breaks ties by node id.
+                    continue;
+                }
                 IndexMetaData indexMetaData = metaData.index(index);
 
                 // find nodes that have a shard of this index or where shards of this index are allowed to be allocated to,
@@ -556,6 +562,22 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             }
         }
 
+        /**
+         * Returns {@code true} iff the weight delta between the lightest and the heaviest node for the given index is
+         * under the threshold. The weights are computed on the current model, as relocations of the indices that were
+         * balanced before might have changed them since the indices were ordered.
+         */
+        private boolean isBalanced(String index) {
+            float minWeight = Float.POSITIVE_INFINITY;
+            float maxWeight = Float.NEGATIVE_INFINITY;
+            for (ModelNode modelNode : sorter.modelNodes) {
+                final float nodeWeight = weight.weight(this, modelNode, index);
+                minWeight = Math.min(minWeight, nodeWeight);
+                maxWeight = Math.max(maxWeight, nodeWeight);
+            }
+            return lessThan(absDelta(minWeight, maxWeight), threshold);
+        }
+
         /**
          * This builds a initial index ordering where the indices are returned
          * in most unbalanced first. We need this in order to prevent over
@@ -1169,6 +1191,7 @@ public class BalancedShardsAllocator implements ShardsAllocator {
         private String index;
         private final Balancer balancer;
         private float pivotWeight;
+        private String pivotNodeId;
 
         NodeSorter(ModelNode[] modelNodes, WeightFunction function, Balancer balancer) {
             this.function = function;
@@ -1207,19 +1230,26 @@ public class BalancedShardsAllocator implements ShardsAllocator {
             weights[j] = tmpWeight;
         }
 
+        /*
+         * Nodes of equal weight are ordered by node id so that the order of the sorted nodes does not depend on the order
+         * they had before, which the balancer changes for every index that it balances.
+         */
         @Override
         protected int compare(int i, int j) {
-            return Float.compare(weights[i], weights[j]);
+            final int cmp = Float.compare(weights[i], weights[j]);
+            return cmp != 0 ? cmp : modelNodes[i].getNodeId().compareTo(modelNodes[j].getNodeId());
         }
 
         @Override
         protected void setPivot(int i) {
             pivotWeight = weights[i];
+            pivotNodeId = modelNodes[i].getNodeId();
         }
 
         @Override
         protected int comparePivot(int j) {
-            return Float.compare(pivotWeight, weights[j]);
+            final int cmp = Float.compare(pivotWeight, weights[j]);
+            return cmp != 0 ? cmp : pivotNodeId.compareTo(modelNodes[j].getNodeId());
         }
 
         public float delta() {
@@ -449,12 +449,23 @@ public class MasterService extends AbstractLifecycleComponent {
      * Returns the tasks that are pending.
      */
     public List<PendingClusterTask> pendingTasks() {
+        // computed once for all tasks, since many pending tasks may share the same batching key
+        final Map<Object, TaskBatcher.BatchStats> batchStatsPerBatchingKey = taskBatcher.batchStats();
         return Arrays.stream(threadPoolExecutor.getPending()).map(pending -> {
             assert pending.task instanceof SourcePrioritizedRunnable :
                 "thread pool executor should only use SourcePrioritizedRunnable instances but found: " + pending.task.getClass().getName();
             SourcePrioritizedRunnable task = (SourcePrioritizedRunnable) pending.task;
+            int batchSize = 0;
+            long batchTimeInQueue = 0L;
+            if (task instanceof TaskBatcher.BatchedTask) {
+                final TaskBatcher.BatchStats batchStats = batchStatsPerBatchingKey.get(((TaskBatcher.BatchedTask) task).batchingKey);
+                if (batchStats != null) {
+                    batchSize = batchStats.size;
+                    batchTimeInQueue = batchStats.maxAgeInMillis;
+                }
+            }
             return new PendingClusterTask(pending.insertionOrder, pending.priority, new Text(task.source()),
-                task.getAgeInMillis(), pending.executing);
+                task.getAgeInMillis(), pending.executing, batchSize, batchTimeInQueue);
         }).collect(Collectors.toList());
     }
 
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.cluster.service;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.Priority;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -35,18 +36,29 @@ public class PendingClusterTask implements Streamable {
     private Text source;
     private long timeInQueue;
     private boolean executing;
+    private int batchSize;
+    private long batchTimeInQueue;
 
     public PendingClusterTask() {
     }
 
     public PendingClusterTask(long insertOrder, Priority priority, Text source, long timeInQueue, boolean executing) {
+        this(insertOrder, priority, source, timeInQueue, executing, 0, 0L);
+    }
+
+    public PendingClusterTask(long insertOrder, Priority priority, Text source, long timeInQueue, boolean executing,
+                              int batchSize, long batchTimeInQueue) {
         assert timeInQueue >= 0 : "got a negative timeInQueue [" + timeInQueue + "]";
         assert insertOrder >= 0 : "got a negative insertOrder [" + insertOrder + "]";
+        assert batchSize >= 0 : "got a negative batchSize [" + batchSize + "]";
+        assert batchTimeInQueue >= 0 : "got a negative batchTimeInQueue [" + batchTimeInQueue + "]";
         this.insertOrder = insertOrder;
         this.priority = priority;
         this.source = source;
         this.timeInQueue = timeInQueue;
         this.executing = executing;
+        this.batchSize = batchSize;
+        this.batchTimeInQueue = batchTimeInQueue;
     }
 
     public long getInsertOrder() {
@@ -73,6 +85,24 @@ public class PendingClusterTask implements Streamable {
         return executing;
     }
 
+    /**
+     * The number of tasks that are queued with the same batching key as this task and that will be executed together with it.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * How long the oldest task that is queued with the same batching key as this task has been waiting.
+     */
+    public long getBatchTimeInQueueInMillis() {
+        return batchTimeInQueue;
+    }
+
+    public TimeValue getBatchTimeInQueue() {
+        return new TimeValue(getBatchTimeInQueueInMillis());
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         insertOrder = in.readVLong();
@@ -80,6 +110,10 @@ public class PendingClusterTask implements Streamable {
         source = in.readText();
         timeInQueue = in.readLong();
         executing = in.readBoolean();
+        if (in.getVersion().onOrAfter(Version.V_8_0_0)) {
+            batchSize = in.readVInt();
+            batchTimeInQueue = in.readVLong();
+        }
     }
 
     @Override
@@ -89,5 +123,9 @@ public class PendingClusterTask implements Streamable {
         out.writeText(source);
         out.writeLong(timeInQueue);
         out.writeBoolean(executing);
+        if (out.getVersion().onOrAfter(Version.V_8_0_0)) {
+            out.writeVInt(batchSize);
+            out.writeVLong(batchTimeInQueue);
+        }
     }
 }
\ No newline at end of file
@@ -33,6 +33,8 @@ import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -46,7 +48,9 @@ public abstract class TaskBatcher {
     private final Logger logger;
     private final PrioritizedEsThreadPoolExecutor threadExecutor;
     // package visible for tests
-    final Map<Object, LinkedHashSet<BatchedTask>> tasksPerBatchingKey = new HashMap<>();
+    // tasks are grouped per batching key, modifications of a single key are atomic so that submitters using different batching keys
+    // (e.g. mapping updates and shard started events) do not contend on a single lock
+    final ConcurrentMap<Object, LinkedHashSet<BatchedTask>> tasksPerBatchingKey = new ConcurrentHashMap<>();
 
     public TaskBatcher(Logger logger, PrioritizedEsThreadPoolExecutor threadExecutor) {
         this.logger = logger;
@@ -67,9 +71,10 @@ public abstract class TaskBatcher {
             (a, b) -> { throw new IllegalStateException("cannot add duplicate task: " + a); },
             IdentityHashMap::new));
 
-        synchronized (tasksPerBatchingKey) {
-            LinkedHashSet<BatchedTask> existingTasks = tasksPerBatchingKey.computeIfAbsent(firstTask.batchingKey,
-                k -> new LinkedHashSet<>(tasks.size()));
+        tasksPerBatchingKey.compute(firstTask.batchingKey, (k, existingTasks) -> {
+            if (existingTasks == null) {
+                existingTasks = new LinkedHashSet<>(tasks.size());
+            }
             for (BatchedTask existing : existingTasks) {
                 // check that there won't be two tasks with the same identity for the same batching key
                 BatchedTask duplicateTask = tasksIdentity.get(existing.getTask());
@@ -79,7 +84,8 @@ public abstract class TaskBatcher {
                 }
             }
             existingTasks.addAll(tasks);
-        }
+            return existingTasks;
+        });
 
         if (timeout != null) {
             threadExecutor.execute(firstTask, timeout, () -> onTimeoutInternal(tasks, timeout));
@@ -101,15 +107,10 @@ public abstract class TaskBatcher {
             Object batchingKey = firstTask.batchingKey;
             assert tasks.stream().allMatch(t -> t.batchingKey == batchingKey) :
                 "tasks submitted in a batch should share the same batching key: " + tasks;
-            synchronized (tasksPerBatchingKey) {
-                LinkedHashSet<BatchedTask> existingTasks = tasksPerBatchingKey.get(batchingKey);
-                if (existingTasks != null) {
-                    existingTasks.removeAll(toRemove);
-                    if (existingTasks.isEmpty()) {
-                        tasksPerBatchingKey.remove(batchingKey);
-                    }
-                }
-            }
+            tasksPerBatchingKey.computeIfPresent(batchingKey, (k, existingTasks) -> {
+                existingTasks.removeAll(toRemove);
+                return existingTasks.isEmpty() ? null : existingTasks;
+            });
             onTimeout(toRemove, timeout);
         }
     }
@@ -126,17 +127,15 @@ public abstract class TaskBatcher {
         if (updateTask.processed.get() == false) {
             final List<BatchedTask> toExecute = new ArrayList<>();
             final Map<String, List<BatchedTask>> processTasksBySource = new HashMap<>();
-            synchronized (tasksPerBatchingKey) {
-                LinkedHashSet<BatchedTask> pending = tasksPerBatchingKey.remove(updateTask.batchingKey);
-                if (pending != null) {
-                    for (BatchedTask task : pending) {
-                        if (task.processed.getAndSet(true) == false) {
-                            logger.trace("will process {}", task);
-                            toExecute.add(task);
-                            processTasksBySource.computeIfAbsent(task.source, s -> new ArrayList<>()).add(task);
-                        } else {
-                            logger.trace("skipping {}, already processed", task);
-                        }
+            final LinkedHashSet<BatchedTask> pending = tasksPerBatchingKey.remove(updateTask.batchingKey);
+            if (pending != null) {
+                for (BatchedTask task : pending) {
+                    if (task.processed.getAndSet(true) == false) {
+                        logger.trace("will process {}", task);
+                        toExecute.add(task);
+                        processTasksBySource.computeIfAbsent(task.source, s -> new ArrayList<>()).add(task);
+                    } else {
+                        logger.trace("skipping {}, already processed", task);
                     }
                 }
             }
@@ -152,6 +151,44 @@ public abstract class TaskBatcher {
         }
     }
 
+    /**
+     * Returns the number of tasks that are currently queued per batching key together with the age of the oldest of them. Batching
+     * keys without queued tasks are left out. The tasks of each key are copied while holding the lock of the key and only counted
+     * once the lock is released, so that this does not hold up the submission and execution of tasks for longer than needed.
+     */
+    Map<Object, BatchStats> batchStats() {
+        final Map<Object, BatchStats> batchStats = new HashMap<>();
+        for (Object batchingKey : tasksPerBatchingKey.keySet()) {
+            final List<BatchedTask> tasks = new ArrayList<>();
+            tasksPerBatchingKey.computeIfPresent(batchingKey, (k, existingTasks) -> {
+                tasks.addAll(existingTasks);
+                return existingTasks;
+            });
+            int size = 0;
+            long maxAgeInMillis = 0L;
+            for (BatchedTask task : tasks) {
+                if (task.processed.get() == false) {
+                    size++;
+                    maxAgeInMillis = Math.max(maxAgeInMillis, task.getAgeInMillis());
+                }
+            }
+            if (size > 0) {
+                batchStats.put(batchingKey, new BatchStats(size, maxAgeInMillis));
+            }
+        }
+        return batchStats;
+    }
+
+    static final class BatchStats {
+        final int size;
+        final long maxAgeInMillis;
+
+        BatchStats(int size, long maxAgeInMillis) {
+            this.size = size;
+            this.maxAgeInMillis = maxAgeInMillis;
+        }
+    }
+
     /**
      * Action to be implemented by the specific batching implementation
      * All tasks have the given batching key.
@@ -91,7 +91,7 @@ public abstract class AbstractAsyncTask implements Runnable, Closeable {
             if (logger.isTraceEnabled()) {
                 logger.trace("scheduling {} every {}", toString(), interval);
             }
-            cancellable = threadPool.schedule(this, interval, getThreadPool());
+            cancellable = threadPool.schedule(this, getNextDelay(interval), getThreadPool());
             isScheduledOrRunning = true;
         } else {
             logger.trace("scheduled {} disabled", toString());
@@ -100,6 +100,14 @@ public abstract class AbstractAsyncTask implements Runnable, Closeable {
         }
     }
 
+    /**
+     * Returns the delay until the next run of this task, defaults to the configured interval.
+     * Derived classes can override this to shift the runs of the task.
+     */
+    protected TimeValue getNextDelay(TimeValue interval) {
+        return interval;
+    }
+
     public boolean isScheduled() {
         // Currently running counts as scheduled to avoid an oscillating return value
         // from this method when a task is repeatedly running and rescheduling itself.
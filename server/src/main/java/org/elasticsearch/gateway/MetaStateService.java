@@ -21,6 +21,7 @@ package org.elasticsearch.gateway;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.Manifest;
 import org.elasticsearch.cluster.metadata.MetaData;
@@ -32,9 +33,14 @@ import org.elasticsearch.index.Index;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 /**
@@ -43,6 +49,17 @@ import java.util.function.Predicate;
 public class MetaStateService {
     private static final Logger logger = LogManager.getLogger(MetaStateService.class);
 
+    /**
+     * The minimum number of indices for which the metadata of the indices is loaded concurrently. Reading a single index state
+     * file is cheap, so below this number forking the loads costs more than it saves.
+     */
+    static final int MIN_INDICES_TO_LOAD_CONCURRENTLY = 64;
+
+    /**
+     * The maximum number of tasks that load the metadata of the indices concurrently.
+     */
+    static final int MAX_CONCURRENT_INDEX_METADATA_LOADS = 8;
+
     private final NodeEnvironment nodeEnv;
     private final NamedXContentRegistry namedXContentRegistry;
 
@@ -51,9 +68,21 @@ public class MetaStateService {
     protected MetaDataStateFormat<IndexMetaData> INDEX_META_DATA_FORMAT = IndexMetaData.FORMAT;
     protected MetaDataStateFormat<Manifest> MANIFEST_FORMAT = Manifest.FORMAT;
 
+    @Nullable
+    private final ExecutorService loadExecutor;
+
     public MetaStateService(NodeEnvironment nodeEnv, NamedXContentRegistry namedXContentRegistry) {
+        this(nodeEnv, namedXContentRegistry, null);
+    }
+
+    /**
+     * @param loadExecutor the executor to load the metadata of many indices concurrently with, typically the generic thread pool,
+     *                     or {@code null} to always load it on the calling thread
+     */
+    public MetaStateService(NodeEnvironment nodeEnv, NamedXContentRegistry namedXContentRegistry, @Nullable ExecutorService loadExecutor) {
         this.nodeEnv = nodeEnv;
         this.namedXContentRegistry = namedXContentRegistry;
+        this.loadExecutor = loadExecutor;
     }
 
     /**
@@ -86,23 +115,80 @@ public class MetaStateService {
             }
         }
 
-        for (Map.Entry<Index, Long> entry : manifest.getIndexGenerations().entrySet()) {
-            final Index index = entry.getKey();
-            final long generation = entry.getValue();
-            final String indexFolderName = index.getUUID();
-            final IndexMetaData indexMetaData = INDEX_META_DATA_FORMAT.loadGeneration(logger, namedXContentRegistry, generation,
-                    nodeEnv.resolveIndexFolder(indexFolderName));
-            if (indexMetaData != null) {
-                metaDataBuilder.put(indexMetaData, false);
-            } else {
-                throw new IOException("failed to find metadata for existing index " + index.getName() + " [location: " + indexFolderName +
-                        ", generation: " + generation + "]");
-            }
+        for (IndexMetaData indexMetaData : loadIndicesMetaData(manifest.getIndexGenerations())) {
+            metaDataBuilder.put(indexMetaData, false);
         }
 
         return new Tuple<>(manifest, metaDataBuilder.build());
     }
 
+    /**
+     * Loads the given generations of the indices metadata. If there are at least {@link #MIN_INDICES_TO_LOAD_CONCURRENTLY} indices
+     * they are loaded concurrently on the load executor, by up to {@link #MAX_CONCURRENT_INDEX_METADATA_LOADS} tasks that each take
+     * the next index to load until none is left, as each index lives in its own state file.
+     */
+    private List<IndexMetaData> loadIndicesMetaData(Map<Index, Long> indexGenerations) throws IOException {
+        final List<Map.Entry<Index, Long>> entries = new ArrayList<>(indexGenerations.entrySet());
+        final IndexMetaData[] indicesMetaData = new IndexMetaData[entries.size()];
+        if (loadExecutor == null || entries.size() < MIN_INDICES_TO_LOAD_CONCURRENTLY) {
+            for (int i = 0; i < entries.size(); i++) {
+                indicesMetaData[i] = loadIndexMetaData(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+            return Arrays.asList(indicesMetaData);
+        }
+
+        final AtomicInteger nextEntry = new AtomicInteger();
+        final List<Future<Void>> futures = new ArrayList<>(MAX_CONCURRENT_INDEX_METADATA_LOADS);
+        for (int i = 0; i < MAX_CONCURRENT_INDEX_METADATA_LOADS; i++) {
+            futures.add(loadExecutor.submit(() -> {
+                int entry;
+                while ((entry = nextEntry.getAndIncrement()) < entries.size()) {
+                    try {
+                        indicesMetaData[entry] = loadIndexMetaData(entries.get(entry).getKey(), entries.get(entry).getValue());
+                    } catch (Exception e) {
+                        // stop the other tasks from loading more indices
+                        nextEntry.set(entries.size());
+                        throw e;
+                    }
+                }
+                return null;
+            }));
+        }
+        Exception failure = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                failure = ExceptionsHelper.useOrSuppress(failure, (Exception) cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                nextEntry.set(entries.size());
+                throw new IOException("interrupted while loading indices metadata", e);
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw ExceptionsHelper.convertToRuntime(failure);
+        }
+        return Arrays.asList(indicesMetaData);
+    }
+
+    private IndexMetaData loadIndexMetaData(Index index, long generation) throws IOException {
+        final String indexFolderName = index.getUUID();
+        final IndexMetaData indexMetaData = INDEX_META_DATA_FORMAT.loadGeneration(logger, namedXContentRegistry, generation,
+                nodeEnv.resolveIndexFolder(indexFolderName));
+        if (indexMetaData == null) {
+            throw new IOException("failed to find metadata for existing index " + index.getName() + " [location: " + indexFolderName +
+                    ", generation: " + generation + "]");
+        }
+        return indexMetaData;
+    }
+
     /**
      * "Manifest-less" BWC version of loading metadata from disk. See also {@link #loadFullState()}
      */
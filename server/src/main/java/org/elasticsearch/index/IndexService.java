@@ -30,6 +30,7 @@ import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.Randomness;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
@@ -876,12 +877,27 @@ public class IndexService extends AbstractIndexComponent implements IndicesClust
 
     final class AsyncRefreshTask extends BaseAsyncTask {
 
+        // no explicit initializer: the first call to getNextDelay happens during super(...), before field initializers run, and
+        // reads the default false. The first run may also already have set it by then, which an explicit "= false" would undo.
+        private volatile boolean ranOnce;
+
         AsyncRefreshTask(IndexService indexService) {
             super(indexService, indexService.getIndexSettings().getRefreshInterval());
         }
 
+        @Override
+        protected TimeValue getNextDelay(TimeValue interval) {
+            if (ranOnce) {
+                return interval;
+            }
+            // many indices are created at the same time, e.g. when a node starts up, randomly delay the first refresh
+            // so that they don't all refresh in the same tick and keep doing so for as long as they live
+            return TimeValue.timeValueMillis((long) (Randomness.get().nextDouble() * interval.millis()));
+        }
+
         @Override
         protected void runInternal() {
+            ranOnce = true;
             indexService.maybeRefreshEngine(false);
         }
 
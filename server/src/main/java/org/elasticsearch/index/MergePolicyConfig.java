@@ -20,6 +20,7 @@
 package org.elasticsearch.index;
 
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.LogByteSizeMergePolicy;
 import org.apache.lucene.index.MergePolicy;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.TieredMergePolicy;
@@ -28,6 +29,8 @@ import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 
+import java.util.Locale;
+
 /**
  * A shard in elasticsearch is a Lucene index, and a Lucene index is broken
  * down into segments. Segments are internal storage elements in the index
@@ -88,6 +91,19 @@ import org.elasticsearch.common.unit.ByteSizeValue;
  *     the index. Lower values make the index more space efficient at the
  *     expense of increased CPU and I/O activity. Values must be between <code>20</code> and
  *     <code>50</code>. Default value is <code>33</code>.
+ *
+ * <li><code>index.merge.policy.type</code>:
+ *
+ *     The merge policy to use, either <code>tiered</code> (the default) or <code>log_byte_size</code>.
+ *     The <code>log_byte_size</code> policy only merges adjacent segments. On append-only indices such as
+ *     time-based indices, adjacent segments hold documents that were indexed close in time, so this policy keeps
+ *     segments clustered by time which lets range queries on the timestamp skip more segments. It uses
+ *     <code>floor_segment</code>, <code>max_merge_at_once</code>, <code>max_merged_segment</code> and
+ *     <code>index.compound_format</code>, the other settings only apply to the <code>tiered</code> policy.
+ *     This policy merges <code>max_merge_at_once</code> segments at a time and can only limit the size of
+ *     the segments it merges, so segments larger than <code>max_merged_segment</code> divided by
+ *     <code>max_merge_at_once</code> are not merged anymore, which keeps merged segments under
+ *     <code>max_merged_segment</code>. This setting can only be set on index creation.
  * </ul>
  *
  * <p>
@@ -117,8 +133,28 @@ import org.elasticsearch.common.unit.ByteSizeValue;
 
 public final class MergePolicyConfig {
     private final EsTieredMergePolicy mergePolicy = new EsTieredMergePolicy();
+    private final LogByteSizeMergePolicy logByteSizeMergePolicy = new LogByteSizeMergePolicy();
     private final Logger logger;
     private final boolean mergesEnabled;
+    private final Type type;
+    private ByteSizeValue maxMergedSegment;
+    private int maxMergeAtOnce;
+
+    /**
+     * The merge policies that can be configured with {@link #INDEX_MERGE_POLICY_TYPE_SETTING}.
+     */
+    public enum Type {
+        TIERED,
+        LOG_BYTE_SIZE;
+
+        public static Type fromString(String type) {
+            try {
+                return Type.valueOf(type.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown merge policy type [" + type + "], must be one of [tiered, log_byte_size]");
+            }
+        }
+    }
 
     public static final double          DEFAULT_EXPUNGE_DELETES_ALLOWED     = 10d;
     public static final ByteSizeValue   DEFAULT_FLOOR_SEGMENT               = new ByteSizeValue(2, ByteSizeUnit.MB);
@@ -156,6 +192,8 @@ public final class MergePolicyConfig {
     public static final Setting<Double> INDEX_MERGE_POLICY_DELETES_PCT_ALLOWED_SETTING =
         Setting.doubleSetting("index.merge.policy.deletes_pct_allowed", DEFAULT_DELETES_PCT_ALLOWED, 20.0d, 50.0d,
             Property.Dynamic, Property.IndexScope);
+    public static final Setting<Type> INDEX_MERGE_POLICY_TYPE_SETTING =
+        new Setting<>("index.merge.policy.type", "tiered", Type::fromString, Property.IndexScope);
     // don't convert to Setting<> and register... we only set this in tests and register via a plugin
     public static final String INDEX_MERGE_ENABLED = "index.merge.enabled";
 
@@ -171,6 +209,7 @@ public final class MergePolicyConfig {
         double segmentsPerTier = indexSettings.getValue(INDEX_MERGE_POLICY_SEGMENTS_PER_TIER_SETTING);
         double reclaimDeletesWeight = indexSettings.getValue(INDEX_MERGE_POLICY_RECLAIM_DELETES_WEIGHT_SETTING);
         double deletesPctAllowed = indexSettings.getValue(INDEX_MERGE_POLICY_DELETES_PCT_ALLOWED_SETTING);
+        this.type = indexSettings.getValue(INDEX_MERGE_POLICY_TYPE_SETTING);
         this.mergesEnabled = indexSettings.getSettings().getAsBoolean(INDEX_MERGE_ENABLED, true);
         if (mergesEnabled == false) {
             logger.warn("[{}] is set to false, this should only be used in tests and can cause serious problems in production" +
@@ -185,12 +224,22 @@ public final class MergePolicyConfig {
         mergePolicy.setMaxMergedSegmentMB(maxMergedSegment.getMbFrac());
         mergePolicy.setSegmentsPerTier(segmentsPerTier);
         mergePolicy.setDeletesPctAllowed(deletesPctAllowed);
+        logByteSizeMergePolicy.setNoCFSRatio(indexSettings.getValue(INDEX_COMPOUND_FORMAT_SETTING));
+        logByteSizeMergePolicy.setMinMergeMB(floorSegment.getMbFrac());
+        this.maxMergedSegment = maxMergedSegment;
+        this.maxMergeAtOnce = maxMergeAtOnce;
+        updateLogByteSizeMergePolicy();
         if (logger.isTraceEnabled()) {
-            logger.trace("using [tiered] merge mergePolicy with expunge_deletes_allowed[{}], floor_segment[{}]," +
-                    " max_merge_at_once[{}], max_merge_at_once_explicit[{}], max_merged_segment[{}], segments_per_tier[{}]," +
-                    " deletes_pct_allowed[{}]",
-                forceMergeDeletesPctAllowed, floorSegment, maxMergeAtOnce, maxMergeAtOnceExplicit, maxMergedSegment, segmentsPerTier,
-                deletesPctAllowed);
+            if (type == Type.LOG_BYTE_SIZE) {
+                logger.trace("using [log_byte_size] merge mergePolicy with floor_segment[{}], max_merge_at_once[{}], " +
+                        "max_merged_segment[{}]", floorSegment, maxMergeAtOnce, maxMergedSegment);
+            } else {
+                logger.trace("using [tiered] merge mergePolicy with expunge_deletes_allowed[{}], floor_segment[{}]," +
+                        " max_merge_at_once[{}], max_merge_at_once_explicit[{}], max_merged_segment[{}], segments_per_tier[{}]," +
+                        " deletes_pct_allowed[{}]",
+                    forceMergeDeletesPctAllowed, floorSegment, maxMergeAtOnce, maxMergeAtOnceExplicit, maxMergedSegment,
+                    segmentsPerTier, deletesPctAllowed);
+            }
         }
     }
 
@@ -200,6 +249,8 @@ public final class MergePolicyConfig {
 
     void setMaxMergedSegment(ByteSizeValue maxMergedSegment) {
         mergePolicy.setMaxMergedSegmentMB(maxMergedSegment.getMbFrac());
+        this.maxMergedSegment = maxMergedSegment;
+        updateLogByteSizeMergePolicy();
     }
 
     void setMaxMergesAtOnceExplicit(Integer maxMergeAtOnceExplicit) {
@@ -208,10 +259,23 @@ public final class MergePolicyConfig {
 
     void setMaxMergesAtOnce(Integer maxMergeAtOnce) {
         mergePolicy.setMaxMergeAtOnce(maxMergeAtOnce);
+        this.maxMergeAtOnce = maxMergeAtOnce;
+        updateLogByteSizeMergePolicy();
+    }
+
+    /**
+     * {@link LogByteSizeMergePolicy} merges {@code maxMergeAtOnce} segments at a time and its maximum merge size only applies
+     * to the segments it merges, not to the merged segment. Limit the segments it merges to a fraction of the maximum merged
+     * segment size so that merged segments stay under {@code max_merged_segment} like with the tiered policy.
+     */
+    private void updateLogByteSizeMergePolicy() {
+        logByteSizeMergePolicy.setMergeFactor(maxMergeAtOnce);
+        logByteSizeMergePolicy.setMaxMergeMB(maxMergedSegment.getMbFrac() / maxMergeAtOnce);
     }
 
     void setFloorSegmentSetting(ByteSizeValue floorSegementSetting) {
         mergePolicy.setFloorSegmentMB(floorSegementSetting.getMbFrac());
+        logByteSizeMergePolicy.setMinMergeMB(floorSegementSetting.getMbFrac());
     }
 
     void setExpungeDeletesAllowed(Double value) {
@@ -220,6 +284,7 @@ public final class MergePolicyConfig {
 
     void setNoCFSRatio(Double noCFSRatio) {
         mergePolicy.setNoCFSRatio(noCFSRatio);
+        logByteSizeMergePolicy.setNoCFSRatio(noCFSRatio);
     }
 
     void setDeletesPctAllowed(Double deletesPctAllowed) {
@@ -243,7 +308,10 @@ public final class MergePolicyConfig {
     }
 
     MergePolicy getMergePolicy() {
-        return mergesEnabled ? mergePolicy : NoMergePolicy.INSTANCE;
+        if (mergesEnabled == false) {
+            return NoMergePolicy.INSTANCE;
+        }
+        return type == Type.LOG_BYTE_SIZE ? logByteSizeMergePolicy : mergePolicy;
     }
 
     private static double parseNoCFSRatio(String noCFSRatio) {
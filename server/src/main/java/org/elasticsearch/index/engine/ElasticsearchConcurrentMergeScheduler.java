@@ -178,13 +178,21 @@ class ElasticsearchConcurrentMergeScheduler extends ConcurrentMergeScheduler {
     MergeStats stats() {
         final MergeStats mergeStats = new MergeStats();
         mergeStats.add(totalMerges.count(), totalMerges.sum(), totalMergesNumDocs.count(), totalMergesSizeInBytes.count(),
-                currentMerges.count(), currentMergesNumDocs.count(), currentMergesSizeInBytes.count(),
+                currentMerges.count(), currentMergesNumDocs.count(), currentMergesSizeInBytes.count(), pausedMerges(),
                 totalMergeStoppedTime.count(),
                 totalMergeThrottledTime.count(),
                 config.isAutoThrottle() ? getIORateLimitMBPerSec() : Double.POSITIVE_INFINITY);
         return mergeStats;
     }
 
+    /**
+     * Returns the number of merges that have a merge thread but are paused because more than the maximum number of
+     * merge threads are running. Lucene only lets the smallest merges run in that case.
+     */
+    private long pausedMerges() {
+        return Math.max(0, mergeThreadCount() - getMaxThreadCount());
+    }
+
     void refreshConfig() {
         if (this.getMaxMergeCount() != config.getMaxMergeCount() || this.getMaxThreadCount() != config.getMaxThreadCount()) {
             this.setMaxMergesAndThreads(config.getMaxMergeCount(), config.getMaxThreadCount());
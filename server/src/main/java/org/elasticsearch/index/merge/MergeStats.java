@@ -19,6 +19,7 @@
 
 package org.elasticsearch.index.merge;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
@@ -40,6 +41,9 @@ public class MergeStats implements Streamable, Writeable, ToXContentFragment {
     private long currentNumDocs;
     private long currentSizeInBytes;
 
+    /** Number of running merges that are paused because more merges than the maximum number of merge threads are running. */
+    private long currentPaused;
+
     /** Total millis that large merges were stopped so that smaller merges would finish. */
     private long totalStoppedTimeInMillis;
 
@@ -64,10 +68,13 @@ public class MergeStats implements Streamable, Writeable, ToXContentFragment {
         totalStoppedTimeInMillis = in.readVLong();
         totalThrottledTimeInMillis = in.readVLong();
         totalBytesPerSecAutoThrottle = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_8_0_0)) {
+            currentPaused = in.readVLong();
+        }
     }
 
     public void add(long totalMerges, long totalMergeTime, long totalNumDocs, long totalSizeInBytes,
-                        long currentMerges, long currentNumDocs, long currentSizeInBytes,
+                        long currentMerges, long currentNumDocs, long currentSizeInBytes, long currentPaused,
                         long stoppedTimeMillis, long throttledTimeMillis, double mbPerSecAutoThrottle) {
         this.total += totalMerges;
         this.totalTimeInMillis += totalMergeTime;
@@ -76,6 +83,7 @@ public class MergeStats implements Streamable, Writeable, ToXContentFragment {
         this.current += currentMerges;
         this.currentNumDocs += currentNumDocs;
         this.currentSizeInBytes += currentSizeInBytes;
+        this.currentPaused += currentPaused;
         this.totalStoppedTimeInMillis += stoppedTimeMillis;
         this.totalThrottledTimeInMillis += throttledTimeMillis;
         long bytesPerSecAutoThrottle = (long) (mbPerSecAutoThrottle * 1024 * 1024);
@@ -93,6 +101,7 @@ public class MergeStats implements Streamable, Writeable, ToXContentFragment {
         this.current += mergeStats.current;
         this.currentNumDocs += mergeStats.currentNumDocs;
         this.currentSizeInBytes += mergeStats.currentSizeInBytes;
+        this.currentPaused += mergeStats.currentPaused;
 
         addTotals(mergeStats);
     }
@@ -198,12 +207,22 @@ public class MergeStats implements Streamable, Writeable, ToXContentFragment {
         return new ByteSizeValue(currentSizeInBytes);
     }
 
+    /**
+     * The current number of running merges that are paused because more merges than the maximum number of merge threads are
+     * running. Lucene pauses the largest merges in that case so that the smaller ones finish first. Merges that exceed the
+     * maximum merge count are not included as Lucene stalls indexing threads instead of starting them.
+     */
+    public long getCurrentPaused() {
+        return this.currentPaused;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.MERGES);
         builder.field(Fields.CURRENT, current);
         builder.field(Fields.CURRENT_DOCS, currentNumDocs);
         builder.humanReadableField(Fields.CURRENT_SIZE_IN_BYTES, Fields.CURRENT_SIZE, getCurrentSize());
+        builder.field(Fields.CURRENT_PAUSED, currentPaused);
         builder.field(Fields.TOTAL, total);
         builder.humanReadableField(Fields.TOTAL_TIME_IN_MILLIS, Fields.TOTAL_TIME, getTotalTime());
         builder.field(Fields.TOTAL_DOCS, totalNumDocs);
@@ -224,6 +243,7 @@ public class MergeStats implements Streamable, Writeable, ToXContentFragment {
         static final String CURRENT_DOCS = "current_docs";
         static final String CURRENT_SIZE = "current_size";
         static final String CURRENT_SIZE_IN_BYTES = "current_size_in_bytes";
+        static final String CURRENT_PAUSED = "current_paused";
         static final String TOTAL = "total";
         static final String TOTAL_TIME = "total_time";
         static final String TOTAL_TIME_IN_MILLIS = "total_time_in_millis";
@@ -256,5 +276,8 @@ public class MergeStats implements Streamable, Writeable, ToXContentFragment {
         out.writeVLong(totalStoppedTimeInMillis);
         out.writeVLong(totalThrottledTimeInMillis);
         out.writeVLong(totalBytesPerSecAutoThrottle);
+        if (out.getVersion().onOrAfter(Version.V_8_0_0)) {
+            out.writeVLong(currentPaused);
+        }
     }
 }
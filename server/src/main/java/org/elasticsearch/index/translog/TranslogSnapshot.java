@@ -27,11 +27,19 @@ import java.nio.ByteBuffer;
 
 final class TranslogSnapshot extends BaseTranslogReader {
 
+    /**
+     * The size of the read-ahead buffer. Operations are read sequentially, so reading this many bytes at once saves two reads
+     * from the file channel for every small operation.
+     */
+    static final int READ_AHEAD_SIZE = 16 * 1024;
+
     private final int totalOperations;
     private final Checkpoint checkpoint;
     protected final long length;
 
     private final ByteBuffer reusableBuffer;
+    private final ByteBuffer readAheadBuffer;
+    private long readAheadPosition;
     private long position;
     private int skippedOperations;
     private int readOperations;
@@ -46,6 +54,9 @@ final class TranslogSnapshot extends BaseTranslogReader {
         this.totalOperations = reader.totalOperations();
         this.checkpoint = reader.getCheckpoint();
         this.reusableBuffer = ByteBuffer.allocate(1024);
+        this.readAheadBuffer = ByteBuffer.allocate((int) Math.min(READ_AHEAD_SIZE, Math.max(0L, length - getFirstOperationOffset())));
+        this.readAheadBuffer.limit(0);
+        this.readAheadPosition = -1L;
         this.readOperations = 0;
         this.position = reader.getFirstOperationOffset();
         this.reuse = null;
@@ -101,7 +112,28 @@ final class TranslogSnapshot extends BaseTranslogReader {
             throw new IOException("read requested before position of first ops. pos [" + position + "] first op on: [" +
                 getFirstOperationOffset() + "], generation: [" + getGeneration() + "], path: [" + path + "]");
         }
-        Channels.readFromFileChannelWithEofException(channel, position, buffer);
+        final int toRead = buffer.remaining();
+        if (toRead > readAheadBuffer.capacity()) {
+            // larger than the read-ahead buffer, there is no point in copying it
+            Channels.readFromFileChannelWithEofException(channel, position, buffer);
+            return;
+        }
+        if (readAheadPosition < 0 || position < readAheadPosition || position + toRead > readAheadPosition + readAheadBuffer.limit()) {
+            // the requested range is not buffered, read ahead as far as the buffer and the snapshot allow
+            readAheadBuffer.clear();
+            readAheadBuffer.limit((int) Math.min(readAheadBuffer.capacity(), length - position));
+            if (readAheadBuffer.limit() < toRead) {
+                throw new EOFException("read requested past EOF. pos [" + position + "] length: [" + toRead + "] end: [" + length
+                    + "], generation: [" + getGeneration() + "], path: [" + path + "]");
+            }
+            Channels.readFromFileChannelWithEofException(channel, position, readAheadBuffer);
+            readAheadBuffer.flip();
+            readAheadPosition = position;
+        }
+        final ByteBuffer slice = readAheadBuffer.duplicate();
+        slice.position(Math.toIntExact(position - readAheadPosition));
+        slice.limit(slice.position() + toRead);
+        buffer.put(slice);
     }
 
     @Override
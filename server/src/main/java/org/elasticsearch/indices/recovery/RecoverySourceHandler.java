@@ -33,6 +33,7 @@ import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.StepListener;
+import org.elasticsearch.action.support.GroupedActionListener;
 import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.common.CheckedSupplier;
@@ -66,12 +67,14 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -102,10 +105,16 @@ public class RecoverySourceHandler {
     private final int chunkSizeInBytes;
     private final RecoveryTargetHandler recoveryTarget;
     private final int maxConcurrentFileChunks;
+    private final int maxConcurrentOperations;
     private final CancellableThreads cancellableThreads = new CancellableThreads();
 
     public RecoverySourceHandler(final IndexShard shard, RecoveryTargetHandler recoveryTarget, final StartRecoveryRequest request,
                                  final int fileChunkSizeInBytes, final int maxConcurrentFileChunks) {
+        this(shard, recoveryTarget, request, fileChunkSizeInBytes, maxConcurrentFileChunks, 1);
+    }
+
+    public RecoverySourceHandler(final IndexShard shard, RecoveryTargetHandler recoveryTarget, final StartRecoveryRequest request,
+                                 final int fileChunkSizeInBytes, final int maxConcurrentFileChunks, final int maxConcurrentOperations) {
         this.shard = shard;
         this.recoveryTarget = recoveryTarget;
         this.request = request;
@@ -114,6 +123,7 @@ public class RecoverySourceHandler {
         this.chunkSizeInBytes = fileChunkSizeInBytes;
         // if the target is on an old version, it won't be able to handle out-of-order file chunks.
         this.maxConcurrentFileChunks = request.targetNode().getVersion().onOrAfter(Version.V_6_7_0) ? maxConcurrentFileChunks : 1;
+        this.maxConcurrentOperations = maxConcurrentOperations;
     }
 
     public StartRecoveryRequest getRequest() {
@@ -564,19 +574,50 @@ public class RecoverySourceHandler {
             }
         );
 
-        sendBatch(
-                readNextBatch,
-                true,
-                SequenceNumbers.UNASSIGNED_SEQ_NO,
-                snapshot.totalOperations(),
-                maxSeenAutoIdTimestamp,
-                maxSeqNoOfUpdatesOrDeletes,
-                retentionLeases,
-                batchedListener);
+        // Each sender pulls batches from the shared snapshot until it is exhausted, so up to maxConcurrentOperations batches are in
+        // flight at a time. The target applies operations in any order; once every sender is done, all operations have been applied
+        // and the highest reported local checkpoint is the one to use.
+        final int numSenders = Math.max(1, maxConcurrentOperations);
+        final ActionListener<Collection<Long>> sendersListener = ActionListener.map(batchedListener,
+            checkpoints -> checkpoints.stream().reduce(SequenceNumbers.UNASSIGNED_SEQ_NO, SequenceNumbers::max));
+        final GroupedActionListener<Long> groupedListener = new GroupedActionListener<>(sendersListener, numSenders);
+        // Once a sender failed the others stop reading from the snapshot. The grouped listener only completes, and the caller only
+        // closes the snapshot, once every sender stopped.
+        final AtomicBoolean failed = new AtomicBoolean();
+        final ActionListener<Long> senderListener = new ActionListener<Long>() {
+            @Override
+            public void onResponse(Long targetLocalCheckpoint) {
+                groupedListener.onResponse(targetLocalCheckpoint);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                failed.set(true);
+                groupedListener.onFailure(e);
+            }
+        };
+        for (int i = 0; i < numSenders; i++) {
+            try {
+                sendBatch(
+                        readNextBatch,
+                        failed,
+                        i == 0, // only the first sender has to ask for the target's local checkpoint if there is nothing to send
+                        SequenceNumbers.UNASSIGNED_SEQ_NO,
+                        snapshot.totalOperations(),
+                        maxSeenAutoIdTimestamp,
+                        maxSeqNoOfUpdatesOrDeletes,
+                        retentionLeases,
+                        senderListener);
+            } catch (Exception e) {
+                // the senders that were already started may still be reading from the snapshot, so don't throw
+                senderListener.onFailure(e);
+            }
+        }
     }
 
     private void sendBatch(
             final CheckedSupplier<List<Translog.Operation>, IOException> nextBatch,
+            final AtomicBoolean failed,
             final boolean firstBatch,
             final long targetLocalCheckpoint,
             final int totalTranslogOps,
@@ -585,6 +626,11 @@ public class RecoverySourceHandler {
             final RetentionLeases retentionLeases,
             final ActionListener<Long> listener) throws IOException {
         assert ThreadPool.assertCurrentMethodIsNotCalledRecursively();
+        if (failed.get()) {
+            // another sender failed, the recovery fails with its exception
+            listener.onResponse(targetLocalCheckpoint);
+            return;
+        }
         final List<Translog.Operation> operations = nextBatch.get();
         // send the leftover operations or if no operations were sent, request the target to respond with its local checkpoint
         if (operations.isEmpty() == false || firstBatch) {
@@ -599,6 +645,7 @@ public class RecoverySourceHandler {
                                 newCheckpoint -> {
                                     sendBatch(
                                             nextBatch,
+                                            failed,
                                             false,
                                             SequenceNumbers.max(targetLocalCheckpoint, newCheckpoint),
                                             totalTranslogOps,
@@ -349,6 +349,8 @@ public class RecoveryState implements ToXContentFragment, Streamable, Writeable
         static final String SOURCE_THROTTLE_TIME_IN_MILLIS = "source_throttle_time_in_millis";
         static final String TARGET_THROTTLE_TIME = "target_throttle_time";
         static final String TARGET_THROTTLE_TIME_IN_MILLIS = "target_throttle_time_in_millis";
+        static final String THROUGHPUT_PER_SEC = "throughput_per_sec";
+        static final String THROUGHPUT_IN_BYTES_PER_SEC = "throughput_in_bytes_per_sec";
     }
 
     public static class Timer implements Writeable {
@@ -910,6 +912,17 @@ public class RecoveryState implements ToXContentFragment, Streamable, Writeable
             return reused;
         }
 
+        /**
+         * average number of bytes recovered per second since the start of the index stage
+         */
+        public synchronized long recoveredBytesPerSecond() {
+            final long timeInMillis = time();
+            if (timeInMillis <= 0) {
+                return 0L;
+            }
+            return recoveredBytes() * 1000L / timeInMillis;
+        }
+
         public synchronized void updateVersion(long version) {
             this.version = version;
         }
@@ -940,6 +953,8 @@ public class RecoveryState implements ToXContentFragment, Streamable, Writeable
             builder.humanReadableField(Fields.TOTAL_TIME_IN_MILLIS, Fields.TOTAL_TIME, new TimeValue(time()));
             builder.humanReadableField(Fields.SOURCE_THROTTLE_TIME_IN_MILLIS, Fields.SOURCE_THROTTLE_TIME, sourceThrottling());
             builder.humanReadableField(Fields.TARGET_THROTTLE_TIME_IN_MILLIS, Fields.TARGET_THROTTLE_TIME, targetThrottling());
+            builder.humanReadableField(Fields.THROUGHPUT_IN_BYTES_PER_SEC, Fields.THROUGHPUT_PER_SEC,
+                new ByteSizeValue(recoveredBytesPerSecond()));
             return builder;
         }
 
@@ -20,6 +20,7 @@
 package org.elasticsearch.ingest;
 
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.mapper.IdFieldMapper;
 import org.elasticsearch.index.mapper.IndexFieldMapper;
@@ -54,6 +55,8 @@ public final class IngestDocument {
     private static final String SOURCE_PREFIX = SourceFieldMapper.NAME + ".";
 
     static final String TIMESTAMP = "timestamp";
+    // the maximum number of parsed field paths that are cached for all documents
+    static final int MAX_CACHED_FIELD_PATHS = 512;
 
     private final Map<String, Object> sourceAndMetadata;
     private final Map<String, Object> ingestMetadata;
@@ -708,12 +711,42 @@ public final class IngestDocument {
             if (Strings.isEmpty(path)) {
                 throw new IllegalArgumentException("path cannot be null nor empty");
             }
+            ParsedFieldPath parsedPath = ParsedFieldPath.of(path);
+            this.initialContext = parsedPath.ingestMetadata ? ingestMetadata : sourceAndMetadata;
+            this.pathElements = parsedPath.pathElements;
+        }
+
+    }
+
+    /**
+     * Returns the number of parsed field paths that are currently cached.
+     */
+    static int cachedFieldPathCount() {
+        return ParsedFieldPath.CACHE.size();
+    }
+
+    /**
+     * The document independent part of a {@link FieldPath}. Processors access the same few paths for every document they
+     * process, so parsed paths are cached rather than split again on every access. All ingest threads look up paths in the cache
+     * for every field access, so it is a lock-free map rather than an LRU cache, which would take a global lock to record each
+     * access. It is cleared when it is full instead, which can only happen if paths are rendered from templates, and the paths
+     * that are used for every document are cached again by the next documents.
+     */
+    private static final class ParsedFieldPath {
+
+        private static final Map<String, ParsedFieldPath> CACHE = ConcurrentCollections.newConcurrentMap();
+
+        private final boolean ingestMetadata;
+        // shared between all documents, must not be modified
+        private final String[] pathElements;
+
+        private ParsedFieldPath(String path) {
             String newPath;
             if (path.startsWith(INGEST_KEY_PREFIX)) {
-                initialContext = ingestMetadata;
+                ingestMetadata = true;
                 newPath = path.substring(INGEST_KEY_PREFIX.length(), path.length());
             } else {
-                initialContext = sourceAndMetadata;
+                ingestMetadata = false;
                 if (path.startsWith(SOURCE_PREFIX)) {
                     newPath = path.substring(SOURCE_PREFIX.length(), path.length());
                 } else {
@@ -726,5 +759,17 @@ public final class IngestDocument {
             }
         }
 
+        static ParsedFieldPath of(String path) {
+            ParsedFieldPath parsedPath = CACHE.get(path);
+            if (parsedPath == null) {
+                // concurrent accesses may parse the same path twice, which is harmless since parsed paths are immutable
+                parsedPath = new ParsedFieldPath(path);
+                if (CACHE.size() >= MAX_CACHED_FIELD_PATHS) {
+                    CACHE.clear();
+                }
+                CACHE.put(path, parsedPath);
+            }
+            return parsedPath;
+        }
     }
 }
@@ -42,6 +42,7 @@ import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.regex.Regex;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
+import org.elasticsearch.common.util.concurrent.CountDown;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.gateway.GatewayService;
@@ -55,14 +56,17 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Holder class for several ingest related services.
@@ -71,6 +75,11 @@ public class IngestService implements ClusterStateApplier {
 
     public static final String NOOP_PIPELINE_NAME = "_none";
 
+    /**
+     * The minimum number of documents of a bulk request that are run through their pipelines on the same thread.
+     */
+    static final int MIN_DOCUMENTS_PER_BATCH = 128;
+
     private static final Logger logger = LogManager.getLogger(IngestService.class);
 
     private final ClusterService clusterService;
@@ -382,45 +391,148 @@ public class IngestService implements ClusterStateApplier {
         ExceptionsHelper.rethrowAndSuppress(exceptions);
     }
 
+    /**
+     * Executes the pipelines of the index requests of a bulk request. Items are identified by their position in the given requests,
+     * the failure and drop handlers may be called concurrently and the completion handler is called exactly once.
+     */
     public void executeBulkRequest(Iterable<DocWriteRequest<?>> actionRequests,
-        BiConsumer<IndexRequest, Exception> itemFailureHandler, Consumer<Exception> completionHandler,
-        Consumer<IndexRequest> itemDroppedHandler) {
+        BiConsumer<Integer, Exception> itemFailureHandler, Consumer<Exception> completionHandler,
+        IntConsumer itemDroppedHandler) {
 
         threadPool.executor(ThreadPool.Names.WRITE).execute(new AbstractRunnable() {
 
+            // set once the completion handler is called or the batches that call it are started, so that it is called only once
+            private boolean completing = false;
+
             @Override
             public void onFailure(Exception e) {
-                completionHandler.accept(e);
+                if (completing) {
+                    logger.warn("failed to complete the execution of the pipelines of a bulk request", e);
+                } else {
+                    completionHandler.accept(e);
+                }
             }
 
             @Override
             protected void doRun() {
+                final List<Tuple<Integer, IndexRequest>> indexRequests = new ArrayList<>();
+                final Set<IndexRequest> distinctIndexRequests = Collections.newSetFromMap(new IdentityHashMap<>());
+                int slot = 0;
                 for (DocWriteRequest<?> actionRequest : actionRequests) {
                     IndexRequest indexRequest = TransportBulkAction.getIndexWriteRequest(actionRequest);
-                    if (indexRequest == null) {
-                        continue;
-                    }
-                    String pipelineId = indexRequest.getPipeline();
-                    if (NOOP_PIPELINE_NAME.equals(pipelineId) == false) {
-                        try {
-                            Pipeline pipeline = pipelines.get(pipelineId);
-                            if (pipeline == null) {
-                                throw new IllegalArgumentException("pipeline with id [" + pipelineId + "] does not exist");
-                            }
-                            innerExecute(indexRequest, pipeline, itemDroppedHandler);
-                            //this shouldn't be needed here but we do it for consistency with index api
-                            // which requires it to prevent double execution
-                            indexRequest.setPipeline(NOOP_PIPELINE_NAME);
-                        } catch (Exception e) {
-                            itemFailureHandler.accept(indexRequest, e);
-                        }
+                    if (indexRequest != null && NOOP_PIPELINE_NAME.equals(indexRequest.getPipeline()) == false) {
+                        indexRequests.add(new Tuple<>(slot, indexRequest));
+                        distinctIndexRequests.add(indexRequest);
                     }
+                    slot++;
+                }
+                // The same request may be added several times to a bulk request. Its pipeline must not run concurrently, and only
+                // runs again if it failed before, so such bulk requests are executed in order on the current thread.
+                final int numBatches = distinctIndexRequests.size() == indexRequests.size() ? numberOfBatches(indexRequests.size()) : 1;
+                if (numBatches <= 1) {
+                    executeBatch(indexRequests, itemFailureHandler, itemDroppedHandler);
+                    completing = true;
+                    completionHandler.accept(null);
+                } else {
+                    completing = true;
+                    executeBatches(indexRequests, numBatches, itemFailureHandler, completionHandler, itemDroppedHandler);
                 }
-                completionHandler.accept(null);
             }
         });
     }
 
+    /**
+     * Executes the given requests in the given number of batches. The first batch runs on the current thread, the others are forked
+     * to the write thread pool, or run on the current thread if the pool rejects them. The thread that completes the last batch calls
+     * the completion handler, with the first exception that a batch failed with if any.
+     */
+    private void executeBatches(List<Tuple<Integer, IndexRequest>> indexRequests, int numBatches,
+                                BiConsumer<Integer, Exception> itemFailureHandler, Consumer<Exception> completionHandler,
+                                IntConsumer itemDroppedHandler) {
+        final int batchSize = (indexRequests.size() + numBatches - 1) / numBatches;
+        final CountDown countDown = new CountDown(numBatches);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final List<AbstractRunnable> batches = new ArrayList<>(numBatches);
+        for (int i = 0; i < numBatches; i++) {
+            final List<Tuple<Integer, IndexRequest>> batch =
+                indexRequests.subList(i * batchSize, Math.min(indexRequests.size(), (i + 1) * batchSize));
+            batches.add(new AbstractRunnable() {
+
+                @Override
+                protected void doRun() {
+                    executeBatch(batch, itemFailureHandler, itemDroppedHandler);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    if (failure.compareAndSet(null, e) == false) {
+                        failure.get().addSuppressed(e);
+                    }
+                }
+
+                @Override
+                public void onRejection(Exception e) {
+                    // the write thread pool is saturated, the batch runs on the current thread instead
+                    try {
+                        doRun();
+                    } catch (Exception inner) {
+                        onFailure(inner);
+                    }
+                }
+
+                @Override
+                public void onAfter() {
+                    if (countDown.countDown()) {
+                        completionHandler.accept(failure.get());
+                    }
+                }
+            });
+        }
+        for (int i = 1; i < numBatches; i++) {
+            threadPool.executor(ThreadPool.Names.WRITE).execute(batches.get(i));
+        }
+        batches.get(0).run();
+    }
+
+    /**
+     * Returns the number of batches the ingest pipelines of a bulk request with the given number of documents are executed in.
+     * Small bulk requests are executed on a single thread, larger ones are spread over at most as many threads as the write
+     * thread pool has.
+     */
+    int numberOfBatches(int numRequests) {
+        final ThreadPool.Info info = threadPool.info(ThreadPool.Names.WRITE);
+        if (info == null || info.getMax() <= 1) {
+            return 1;
+        }
+        final int batches = (numRequests + MIN_DOCUMENTS_PER_BATCH - 1) / MIN_DOCUMENTS_PER_BATCH;
+        return Math.max(1, Math.min(batches, info.getMax()));
+    }
+
+    private void executeBatch(List<Tuple<Integer, IndexRequest>> indexRequests, BiConsumer<Integer, Exception> itemFailureHandler,
+                              IntConsumer itemDroppedHandler) {
+        for (Tuple<Integer, IndexRequest> slotAndIndexRequest : indexRequests) {
+            final int slot = slotAndIndexRequest.v1();
+            final IndexRequest indexRequest = slotAndIndexRequest.v2();
+            String pipelineId = indexRequest.getPipeline();
+            if (NOOP_PIPELINE_NAME.equals(pipelineId)) {
+                // an earlier occurrence of the same request already went through its pipeline
+                continue;
+            }
+            try {
+                Pipeline pipeline = pipelines.get(pipelineId);
+                if (pipeline == null) {
+                    throw new IllegalArgumentException("pipeline with id [" + pipelineId + "] does not exist");
+                }
+                innerExecute(slot, indexRequest, pipeline, itemDroppedHandler);
+                //this shouldn't be needed here but we do it for consistency with index api
+                // which requires it to prevent double execution
+                indexRequest.setPipeline(NOOP_PIPELINE_NAME);
+            } catch (Exception e) {
+                itemFailureHandler.accept(slot, e);
+            }
+        }
+    }
+
     public IngestStats stats() {
         IngestStats.Builder statsBuilder = new IngestStats.Builder();
         statsBuilder.addTotalMetrics(totalMetrics);
@@ -460,7 +572,7 @@ public class IngestService implements ClusterStateApplier {
         return sb.toString();
     }
 
-    private void innerExecute(IndexRequest indexRequest, Pipeline pipeline, Consumer<IndexRequest> itemDroppedHandler) throws Exception {
+    private void innerExecute(int slot, IndexRequest indexRequest, Pipeline pipeline, IntConsumer itemDroppedHandler) throws Exception {
         if (pipeline.getProcessors().isEmpty()) {
             return;
         }
@@ -479,7 +591,7 @@ public class IngestService implements ClusterStateApplier {
             Map<String, Object> sourceAsMap = indexRequest.sourceAsMap();
             IngestDocument ingestDocument = new IngestDocument(index, type, id, routing, version, versionType, sourceAsMap);
             if (pipeline.execute(ingestDocument) == null) {
-                itemDroppedHandler.accept(indexRequest);
+                itemDroppedHandler.accept(slot);
             } else {
                 Map<IngestDocument.MetaData, Object> metadataMap = ingestDocument.extractMetadata();
                 //it's fine to set all metadata fields all the time, as ingest document holds their starting values
@@ -37,6 +37,9 @@ import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.metadata.RepositoryMetaData;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.CheckedRunnable;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.Numbers;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.UUIDs;
@@ -60,6 +63,8 @@ import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
@@ -108,7 +113,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo.canonicalName;
@@ -201,10 +214,43 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      */
     public static final Setting<Boolean> COMPRESS_SETTING = Setting.boolSetting("compress", true, Setting.Property.NodeScope);
 
+    /**
+     * The maximum number of files of a shard that are uploaded concurrently when snapshotting it. The additional uploads of all
+     * shards that are snapshotted to this repository share a single pool of threads, which bounds the number of concurrent uploads
+     * to the repository.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_FILE_UPLOADS_SETTING =
+        Setting.intSetting("max_concurrent_file_uploads", 1, 1, 16, Setting.Property.NodeScope);
+
+    /**
+     * The maximum number of files of a shard that are downloaded concurrently when restoring it, see
+     * {@link #MAX_CONCURRENT_FILE_UPLOADS_SETTING}.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_FILE_RESTORES_SETTING =
+        Setting.intSetting("max_concurrent_file_restores", 1, 1, 16, Setting.Property.NodeScope);
+
+    /**
+     * The maximum number of shards whose data is cleaned up concurrently when deleting a snapshot.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_SHARD_DELETES_SETTING =
+        Setting.intSetting("max_concurrent_shard_deletes", 1, 1, 16, Setting.Property.NodeScope);
+
     private final Settings settings;
 
     private final boolean compress;
 
+    private final int maxConcurrentFileUploads;
+
+    private volatile ExecutorService fileUploadExecutor;
+
+    private final int maxConcurrentFileRestores;
+
+    private volatile ExecutorService fileRestoreExecutor;
+
+    private final int maxConcurrentShardDeletes;
+
+    private volatile ExecutorService shardDeleteExecutor;
+
     private final RateLimiter snapshotRateLimiter;
 
     private final RateLimiter restoreRateLimiter;
@@ -242,6 +288,9 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         this.metadata = metadata;
         this.namedXContentRegistry = namedXContentRegistry;
         this.compress = COMPRESS_SETTING.get(metadata.settings());
+        this.maxConcurrentFileUploads = MAX_CONCURRENT_FILE_UPLOADS_SETTING.get(metadata.settings());
+        this.maxConcurrentFileRestores = MAX_CONCURRENT_FILE_RESTORES_SETTING.get(metadata.settings());
+        this.maxConcurrentShardDeletes = MAX_CONCURRENT_SHARD_DELETES_SETTING.get(metadata.settings());
         snapshotRateLimiter = getRateLimiter(metadata.settings(), "max_snapshot_bytes_per_sec", new ByteSizeValue(40, ByteSizeUnit.MB));
         restoreRateLimiter = getRateLimiter(metadata.settings(), "max_restore_bytes_per_sec", new ByteSizeValue(40, ByteSizeUnit.MB));
         readOnly = metadata.settings().getAsBoolean("readonly", false);
@@ -265,6 +314,28 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             IndexMetaData::fromXContent, namedXContentRegistry, compress);
         snapshotFormat = new ChecksumBlobStoreFormat<>(SNAPSHOT_CODEC, SNAPSHOT_NAME_FORMAT,
             SnapshotInfo::fromXContentInternal, namedXContentRegistry, compress);
+        // the calling thread always does its share of the work, so we only need threads for the additional concurrent tasks
+        if (maxConcurrentFileUploads > 1) {
+            fileUploadExecutor = newExecutor("snapshot_file_upload", maxConcurrentFileUploads - 1);
+        }
+        if (maxConcurrentFileRestores > 1) {
+            fileRestoreExecutor = newExecutor("snapshot_file_restore", maxConcurrentFileRestores - 1);
+        }
+        if (maxConcurrentShardDeletes > 1) {
+            shardDeleteExecutor = newExecutor("snapshot_shard_delete", maxConcurrentShardDeletes - 1);
+        }
+    }
+
+    /**
+     * Creates a pool of helper threads for this repository. Repositories are not given the node's {@link ThreadPool}, so the pool
+     * has its own {@link ThreadContext} and tasks run on it without the headers and transient context of the thread that submitted
+     * them. This is fine for the blob transfers and deletes that run on them, since they only access the blob store, which does not
+     * read the thread context, but actions that depend on the context, such as security checks, must not be run on these threads.
+     */
+    private ExecutorService newExecutor(String type, int maxThreads) {
+        final String name = "[" + type + "][" + metadata.name() + "]";
+        return EsExecutors.newScaling(name, 0, maxThreads, 60, TimeUnit.SECONDS, EsExecutors.daemonThreadFactory(settings, name),
+            new ThreadContext(settings));
     }
 
     @Override
@@ -272,6 +343,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
 
     @Override
     protected void doClose() {
+        for (ExecutorService executor : new ExecutorService[] {fileUploadExecutor, fileRestoreExecutor, shardDeleteExecutor}) {
+            if (executor != null) {
+                ThreadPool.terminate(executor, 10, TimeUnit.SECONDS);
+            }
+        }
         BlobStore store;
         // to close blobStore if blobStore initialization is started during close
         synchronized (lock) {
@@ -439,6 +515,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             // Now delete all indices
             if (snapshot != null) {
                 final List<String> indices = snapshot.indices();
+                final List<Tuple<IndexId, ShardId>> shardsToDelete = new ArrayList<>();
                 for (String index : indices) {
                     final IndexId indexId = repositoryData.resolveIndexId(index);
 
@@ -454,16 +531,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
 
                     if (indexMetaData != null) {
                         for (int shardId = 0; shardId < indexMetaData.getNumberOfShards(); shardId++) {
-                            try {
-                                delete(snapshotId, indexId, new ShardId(indexMetaData.getIndex(), shardId));
-                            } catch (SnapshotException ex) {
-                                final int finalShardId = shardId;
-                                logger.warn(() -> new ParameterizedMessage("[{}] failed to delete shard data for shard [{}][{}]",
-                                    snapshotId, index, finalShardId), ex);
-                            }
+                            shardsToDelete.add(new Tuple<>(indexId, new ShardId(indexMetaData.getIndex(), shardId)));
                         }
                     }
                 }
+                deleteShardSnapshots(snapshotId, shardsToDelete);
             }
 
             // cleanup indices that are no longer part of the repository
@@ -491,6 +563,22 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    /**
+     * Deletes the data of the given snapshot for the given shards. Each shard has its own container and index file, so if the
+     * repository allows it, shards are cleaned up concurrently.
+     */
+    private void deleteShardSnapshots(SnapshotId snapshotId, List<Tuple<IndexId, ShardId>> shards) throws IOException {
+        final CheckedConsumer<Tuple<IndexId, ShardId>, IOException> deleteShard = shard -> {
+            try {
+                delete(snapshotId, shard.v1(), shard.v2());
+            } catch (SnapshotException ex) {
+                logger.warn(() -> new ParameterizedMessage("[{}] failed to delete shard data for shard [{}][{}]",
+                    snapshotId, shard.v2().getIndexName(), shard.v2().id()), ex);
+            }
+        };
+        runConcurrently(shardDeleteExecutor, maxConcurrentShardDeletes, shards, deleteShard);
+    }
+
     private void deleteSnapshotBlobIgnoringErrors(final SnapshotInfo snapshotInfo, final String blobId) {
         try {
             snapshotFormat.delete(blobContainer(), blobId);
@@ -1157,6 +1245,87 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         }
     }
 
+    /**
+     * Runs the given action on all the given files, larger files first. See {@link #runConcurrently}.
+     */
+    private static void transferConcurrently(@Nullable ExecutorService executor, int maxConcurrency,
+                                             List<BlobStoreIndexShardSnapshot.FileInfo> files,
+                                             CheckedConsumer<BlobStoreIndexShardSnapshot.FileInfo, IOException> action) throws IOException {
+        final List<BlobStoreIndexShardSnapshot.FileInfo> sortedFiles = new ArrayList<>(files);
+        sortedFiles.sort((a, b) -> Long.compare(b.length(), a.length()));
+        runConcurrently(executor, maxConcurrency, sortedFiles, action);
+    }
+
+    /**
+     * Runs the given action on all the given items in order, using the calling thread and up to {@code maxConcurrency - 1} tasks on
+     * the given executor, or only the calling thread if there is no executor.
+     * <p>
+     * Once the action failed for an item, no thread picks another item and the first failure is rethrown once all the started tasks
+     * completed. Tasks that have not started by the time the calling thread ran out of items are cancelled, and tasks that the executor
+     * rejects are not retried, so a saturated executor never blocks the caller for longer than it takes to process the items it picked.
+     */
+    static <T> void runConcurrently(@Nullable ExecutorService executor, int maxConcurrency, List<T> items,
+                                    CheckedConsumer<T, IOException> action) throws IOException {
+        final Queue<T> queue = new ConcurrentLinkedQueue<>(items);
+        final AtomicBoolean failed = new AtomicBoolean();
+        final CheckedRunnable<IOException> drainQueue = () -> {
+            T item;
+            while (failed.get() == false && (item = queue.poll()) != null) {
+                boolean success = false;
+                try {
+                    action.accept(item);
+                    success = true;
+                } finally {
+                    if (success == false) {
+                        failed.set(true);
+                    }
+                }
+            }
+        };
+        final int additionalTasks = executor == null ? 0 : Math.max(0, Math.min(maxConcurrency, items.size()) - 1);
+        final List<Future<?>> tasks = new ArrayList<>(additionalTasks);
+        for (int i = 0; i < additionalTasks; i++) {
+            try {
+                tasks.add(executor.submit(() -> {
+                    drainQueue.run();
+                    return null;
+                }));
+            } catch (RejectedExecutionException e) {
+                // the executor is shut down, the calling thread and the tasks that were already submitted process the items
+                break;
+            }
+        }
+        Exception failure = null;
+        try {
+            drainQueue.run();
+        } catch (Exception e) {
+            failure = e;
+        }
+        for (Future<?> task : tasks) {
+            if (task.cancel(false)) {
+                // the task never started, its items have been processed by the other threads
+                continue;
+            }
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                failure = ExceptionsHelper.useOrSuppress(failure,
+                    e.getCause() instanceof Exception ? (Exception) e.getCause() : new RuntimeException(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.set(true);
+                failure = ExceptionsHelper.useOrSuppress(failure, e);
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new IOException(failure);
+        }
+    }
+
     /**
      * Context for snapshot operations
      */
@@ -1275,13 +1444,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 snapshotStatus.moveToStarted(startTime, indexIncrementalFileCount,
                     indexTotalNumberOfFiles, indexIncrementalSize, indexTotalFileCount);
 
-                for (BlobStoreIndexShardSnapshot.FileInfo snapshotFileInfo : filesToSnapshot) {
-                    try {
-                        snapshotFile(snapshotFileInfo);
-                    } catch (IOException e) {
-                        throw new IndexShardSnapshotFailedException(shardId, "Failed to perform snapshot (index files)", e);
-                    }
-                }
+                snapshotFiles(filesToSnapshot);
             } finally {
                 store.decRef();
             }
@@ -1320,6 +1483,20 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             snapshotStatus.moveToDone(System.currentTimeMillis());
         }
 
+        /**
+         * Snapshots the given files. If the repository allows concurrent uploads, the files are uploaded by the current thread
+         * together with as many upload threads as are available, largest files first.
+         *
+         * @param filesToSnapshot files to be snapshotted
+         */
+        private void snapshotFiles(final List<BlobStoreIndexShardSnapshot.FileInfo> filesToSnapshot) {
+            try {
+                transferConcurrently(fileUploadExecutor, maxConcurrentFileUploads, filesToSnapshot, this::snapshotFile);
+            } catch (IOException e) {
+                throw new IndexShardSnapshotFailedException(shardId, "Failed to perform snapshot (index files)", e);
+            }
+        }
+
         /**
          * Snapshot individual file
          *
@@ -1479,6 +1656,14 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             this.blobContainer = blobContainer;
         }
 
+        @Override
+        protected void restoreFiles(List<BlobStoreIndexShardSnapshot.FileInfo> filesToRecover, Store store) throws IOException {
+            transferConcurrently(fileRestoreExecutor, maxConcurrentFileRestores, filesToRecover, fileToRecover -> {
+                logger.trace("[{}] [{}] restoring file [{}]", shardId, snapshotId, fileToRecover.name());
+                restoreFile(fileToRecover, store);
+            });
+        }
+
         @Override
         protected InputStream fileInputStream(BlobStoreIndexShardSnapshot.FileInfo fileInfo) {
             if (restoreRateLimiter == null) {
@@ -252,7 +252,7 @@ public abstract class FileRestoreContext {
      *
      * @param fileInfo file to be restored
      */
-    private void restoreFile(final BlobStoreIndexShardSnapshot.FileInfo fileInfo, final Store store) throws IOException {
+    protected void restoreFile(final BlobStoreIndexShardSnapshot.FileInfo fileInfo, final Store store) throws IOException {
         boolean success = false;
 
         try (InputStream stream = fileInputStream(fileInfo)) {
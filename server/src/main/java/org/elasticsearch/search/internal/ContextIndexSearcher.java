@@ -27,7 +27,9 @@ import org.apache.lucene.search.BulkScorer;
 import org.apache.lucene.search.CollectionStatistics;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryCache;
 import org.apache.lucene.search.QueryCachingPolicy;
@@ -123,7 +125,7 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
             timer.start();
             final Weight weight;
             try {
-                weight = super.createWeight(query, scoreMode, boost);
+                weight = maybeSkipSegments(query, super.createWeight(query, scoreMode, boost));
             } finally {
                 timer.stop();
                 profiler.pollLastElement();
@@ -131,10 +133,28 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
             return new ProfileWeight(query, weight, profile);
         } else {
             // needs to be 'super', not 'in' in order to use aggregated DFS
-            return super.createWeight(query, scoreMode, boost);
+            return maybeSkipSegments(query, super.createWeight(query, scoreMode, boost));
         }
     }
 
+    /**
+     * Wraps the weight of point range queries so that segments whose points are all outside of the range are skipped
+     * before any scorer is created for them. Range queries on numeric and date fields that have doc values are
+     * {@link IndexOrDocValuesQuery}s, which create the weight of their point range query directly, so the point range
+     * is taken from their index query.
+     */
+    private static Weight maybeSkipSegments(Query query, Weight weight) {
+        if (query instanceof PointRangeQuery) {
+            return new PointRangeSkippingWeight(query, (PointRangeQuery) query, weight);
+        } else if (query instanceof IndexOrDocValuesQuery) {
+            final Query indexQuery = ((IndexOrDocValuesQuery) query).getIndexQuery();
+            if (indexQuery instanceof PointRangeQuery) {
+                return new PointRangeSkippingWeight(query, (PointRangeQuery) indexQuery, weight);
+            }
+        }
+        return weight;
+    }
+
     @Override
     protected void search(List<LeafReaderContext> leaves, Weight weight, Collector collector) throws IOException {
         final Weight cancellableWeight;
@@ -0,0 +1,99 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.internal;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.search.BulkScorer;
+import org.apache.lucene.search.FilterWeight;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.FutureArrays;
+
+import java.io.IOException;
+
+/**
+ * A {@link Weight} wrapper for {@link PointRangeQuery}, or for queries that only match within a point range, that
+ * doesn't create a scorer for segments whose points are all outside of the range. The min and max packed values of a
+ * segment are loaded when the segment is opened so this check is cheap, and returning {@code null} allows a conjunction
+ * that contains the range query as a required clause to skip the segment without creating scorers for its other clauses.
+ */
+final class PointRangeSkippingWeight extends FilterWeight {
+
+    private final String field;
+    private final int bytesPerDim;
+    private final byte[] lowerPoint;
+    private final byte[] upperPoint;
+
+    /**
+     * @param query      the query of the wrapped weight
+     * @param pointRange the point range that every document matching {@code query} must be within
+     * @param weight     the weight to wrap
+     */
+    PointRangeSkippingWeight(Query query, PointRangeQuery pointRange, Weight weight) {
+        super(query, weight);
+        this.field = pointRange.getField();
+        this.bytesPerDim = pointRange.getBytesPerDim();
+        this.lowerPoint = pointRange.getLowerPoint();
+        this.upperPoint = pointRange.getUpperPoint();
+    }
+
+    /**
+     * Returns {@code true} if no point of the segment can be within the range of the query.
+     */
+    boolean canSkip(LeafReaderContext context) throws IOException {
+        final PointValues values = context.reader().getPointValues(field);
+        if (values == null) {
+            return true;
+        }
+        if (values.getBytesPerDimension() != bytesPerDim || values.getMinPackedValue().length != lowerPoint.length) {
+            // let the wrapped weight deal with the inconsistency
+            return false;
+        }
+        final byte[] minPackedValue = values.getMinPackedValue();
+        final byte[] maxPackedValue = values.getMaxPackedValue();
+        for (int offset = 0; offset < lowerPoint.length; offset += bytesPerDim) {
+            final int end = offset + bytesPerDim;
+            if (FutureArrays.compareUnsigned(lowerPoint, offset, end, maxPackedValue, offset, end) > 0
+                || FutureArrays.compareUnsigned(upperPoint, offset, end, minPackedValue, offset, end) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Scorer scorer(LeafReaderContext context) throws IOException {
+        return canSkip(context) ? null : in.scorer(context);
+    }
+
+    @Override
+    public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
+        return canSkip(context) ? null : in.scorerSupplier(context);
+    }
+
+    @Override
+    public BulkScorer bulkScorer(LeafReaderContext context) throws IOException {
+        return canSkip(context) ? null : in.bulkScorer(context);
+    }
+}
@@ -55,7 +55,7 @@ public class BulkRequestModifierTests extends ESTestCase {
         while (bulkRequestModifier.hasNext()) {
             bulkRequestModifier.next();
             if (randomBoolean()) {
-                bulkRequestModifier.markCurrentItemAsFailed(new RuntimeException());
+                bulkRequestModifier.markItemAsFailed(i, new RuntimeException());
                 failedSlots.add(i);
             }
             i++;
@@ -93,7 +93,7 @@ public class BulkRequestModifierTests extends ESTestCase {
         for (int i = 0; modifier.hasNext(); i++) {
             modifier.next();
             if (i % 2 == 0) {
-                modifier.markCurrentItemAsFailed(new RuntimeException());
+                modifier.markItemAsFailed(i, new RuntimeException());
             }
         }
 
@@ -128,6 +128,48 @@ public class BulkRequestModifierTests extends ESTestCase {
         }
     }
 
+    public void testDuplicateRequestsAreMarkedBySlot() {
+        BulkRequest originalBulkRequest = new BulkRequest();
+        IndexRequest duplicate = new IndexRequest("index", "type", "0");
+        originalBulkRequest.add(duplicate);
+        originalBulkRequest.add(new IndexRequest("index", "type", "1"));
+        originalBulkRequest.add(duplicate);
+
+        TransportBulkAction.BulkRequestModifier modifier = new TransportBulkAction.BulkRequestModifier(originalBulkRequest);
+        while (modifier.hasNext()) {
+            modifier.next();
+        }
+        // the pipeline of the second occurrence failed, the first one went through
+        modifier.markItemAsFailed(2, new RuntimeException());
+
+        BulkRequest bulkRequest = modifier.getBulkRequest();
+        assertThat(bulkRequest.requests().size(), equalTo(2));
+        List<BulkItemResponse> responses = new ArrayList<>();
+        ActionListener<BulkResponse> bulkResponseListener = modifier.wrapActionListenerIfNeeded(1L, new ActionListener<BulkResponse>() {
+            @Override
+            public void onResponse(BulkResponse bulkItemResponses) {
+                responses.addAll(Arrays.asList(bulkItemResponses.getItems()));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+            }
+        });
+        BulkItemResponse[] shardResponses = new BulkItemResponse[2];
+        for (int i = 0; i < shardResponses.length; i++) {
+            IndexRequest indexRequest = (IndexRequest) bulkRequest.requests().get(i);
+            shardResponses[i] = new BulkItemResponse(i, indexRequest.opType(), new IndexResponse(new ShardId("index", "_na_", 0),
+                indexRequest.type(), indexRequest.id(), 1, 17, 1, true));
+        }
+        bulkResponseListener.onResponse(new BulkResponse(shardResponses, 0));
+
+        assertThat(responses.size(), equalTo(3));
+        assertThat(responses.get(0).isFailed(), is(false));
+        assertThat(responses.get(1).isFailed(), is(false));
+        assertThat(responses.get(2).isFailed(), is(true));
+        assertThat(responses.get(2).getItemId(), equalTo(2));
+    }
+
     public void testNoFailures() {
         BulkRequest originalBulkRequest = new BulkRequest();
         for (int i = 0; i < 32; i++) {
@@ -0,0 +1,199 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.action.index;
+
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.Version;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.mapping.put.PutMappingAction;
+import org.elasticsearch.action.admin.indices.mapping.put.PutMappingRequestBuilder;
+import org.elasticsearch.action.support.master.AcknowledgedResponse;
+import org.elasticsearch.client.AdminClient;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.IndicesAdminClient;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.mapper.ContentPath;
+import org.elasticsearch.index.mapper.Mapper;
+import org.elasticsearch.index.mapper.Mapping;
+import org.elasticsearch.index.mapper.MetadataFieldMapper;
+import org.elasticsearch.index.mapper.RootObjectMapper;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MappingUpdatedActionTests extends ESTestCase {
+
+    private final List<ActionListener<AcknowledgedResponse>> sentRequests = new CopyOnWriteArrayList<>();
+
+    private MappingUpdatedAction createAction() {
+        final IndicesAdminClient indicesAdminClient = mock(IndicesAdminClient.class);
+        when(indicesAdminClient.preparePutMapping()).thenAnswer(
+            invocation -> new PutMappingRequestBuilder(indicesAdminClient, PutMappingAction.INSTANCE));
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            ActionListener<AcknowledgedResponse> listener = (ActionListener<AcknowledgedResponse>) invocation.getArguments()[2];
+            sentRequests.add(listener);
+            return null;
+        }).when(indicesAdminClient).execute(any(), any(), any());
+        final AdminClient adminClient = mock(AdminClient.class);
+        when(adminClient.indices()).thenReturn(indicesAdminClient);
+        final Client client = mock(Client.class);
+        when(client.admin()).thenReturn(adminClient);
+
+        final MappingUpdatedAction action = new MappingUpdatedAction(Settings.EMPTY,
+            new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+        action.setClient(client);
+        return action;
+    }
+
+    private static Mapping mappingUpdate(String type) {
+        Mapper.BuilderContext context = new Mapper.BuilderContext(
+            Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT).build(), new ContentPath());
+        RootObjectMapper root = new RootObjectMapper.Builder(type).build(context);
+        return new Mapping(Version.CURRENT, root, new MetadataFieldMapper[0], emptyMap());
+    }
+
+    private static Thread startUpdate(MappingUpdatedAction action, Index index, String type, TimeValue timeout,
+                                      AtomicReference<Exception> failure) {
+        Thread thread = new Thread(() -> {
+            try {
+                action.updateMappingOnMaster(index, type, mappingUpdate(type), timeout);
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(Thread thread) throws Exception {
+        assertBusy(() -> assertThat(thread.getState(), equalTo(Thread.State.TIMED_WAITING)));
+    }
+
+    public void testIdenticalConcurrentUpdatesAreSentOnce() throws Exception {
+        final MappingUpdatedAction action = createAction();
+        final Index index = new Index("test", "_na_");
+        final AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        final AtomicReference<Exception> secondFailure = new AtomicReference<>();
+
+        final Thread first = startUpdate(action, index, "type", TimeValue.timeValueMinutes(1), firstFailure);
+        assertBusy(() -> assertThat(sentRequests.size(), equalTo(1)));
+        final Thread second = startUpdate(action, index, "type", TimeValue.timeValueMinutes(1), secondFailure);
+        awaitWaiting(second);
+        assertThat(sentRequests.size(), equalTo(1));
+
+        sentRequests.get(0).onResponse(new AcknowledgedResponse(true));
+        first.join();
+        second.join();
+        assertNull(firstFailure.get());
+        assertNull(secondFailure.get());
+        assertThat(sentRequests.size(), equalTo(1));
+    }
+
+    public void testDifferentUpdatesAreNotShared() throws Exception {
+        final MappingUpdatedAction action = createAction();
+        final Index index = new Index("test", "_na_");
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        final Thread first = startUpdate(action, index, "type1", TimeValue.timeValueMinutes(1), failure);
+        final Thread second = startUpdate(action, index, "type2", TimeValue.timeValueMinutes(1), failure);
+        assertBusy(() -> assertThat(sentRequests.size(), equalTo(2)));
+
+        sentRequests.forEach(listener -> listener.onResponse(new AcknowledgedResponse(true)));
+        first.join();
+        second.join();
+        assertNull(failure.get());
+    }
+
+    public void testFailureIsPropagatedToJoinedCallers() throws Exception {
+        final MappingUpdatedAction action = createAction();
+        final Index index = new Index("test", "_na_");
+        final AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        final AtomicReference<Exception> secondFailure = new AtomicReference<>();
+
+        final Thread first = startUpdate(action, index, "type", TimeValue.timeValueMinutes(1), firstFailure);
+        assertBusy(() -> assertThat(sentRequests.size(), equalTo(1)));
+        final Thread second = startUpdate(action, index, "type", TimeValue.timeValueMinutes(1), secondFailure);
+        awaitWaiting(second);
+
+        final IllegalStateException exception = new IllegalStateException("simulated");
+        sentRequests.get(0).onFailure(exception);
+        first.join();
+        second.join();
+        assertThat(firstFailure.get(), sameInstance(exception));
+        assertThat(secondFailure.get(), sameInstance(exception));
+    }
+
+    public void testCompletedUpdateIsRemoved() throws Exception {
+        final MappingUpdatedAction action = createAction();
+        final Index index = new Index("test", "_na_");
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        final Thread first = startUpdate(action, index, "type", TimeValue.timeValueMinutes(1), failure);
+        assertBusy(() -> assertThat(sentRequests.size(), equalTo(1)));
+        if (randomBoolean()) {
+            sentRequests.get(0).onResponse(new AcknowledgedResponse(true));
+        } else {
+            sentRequests.get(0).onFailure(new IllegalStateException("simulated"));
+        }
+        first.join();
+
+        // the same update is sent again once the previous one completed
+        failure.set(null);
+        final Thread second = startUpdate(action, index, "type", TimeValue.timeValueMinutes(1), failure);
+        assertBusy(() -> assertThat(sentRequests.size(), equalTo(2)));
+        sentRequests.get(1).onResponse(new AcknowledgedResponse(true));
+        second.join();
+        assertNull(failure.get());
+    }
+
+    public void testJoinedCallersUseTheirOwnTimeout() throws Exception {
+        final MappingUpdatedAction action = createAction();
+        final Index index = new Index("test", "_na_");
+        final AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        final AtomicReference<Exception> secondFailure = new AtomicReference<>();
+
+        final Thread first = startUpdate(action, index, "type", TimeValue.timeValueMinutes(1), firstFailure);
+        assertBusy(() -> assertThat(sentRequests.size(), equalTo(1)));
+        final Thread second = startUpdate(action, index, "type", TimeValue.timeValueMillis(10), secondFailure);
+        second.join();
+        assertThat(secondFailure.get(), instanceOf(ElasticsearchTimeoutException.class));
+        assertThat(sentRequests.size(), equalTo(1));
+
+        sentRequests.get(0).onResponse(new AcknowledgedResponse(true));
+        first.join();
+        assertNull(firstFailure.get());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.routing;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.test.ESTestCase;
+
+import java.net.InetAddress;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+public class RoutingNodeTests extends ESTestCase {
+
+    private final DiscoveryNode node = new DiscoveryNode("node1", new TransportAddress(InetAddress.getLoopbackAddress(), 9300),
+        emptyMap(), emptySet(), Version.CURRENT);
+
+    public void testMovingShardsAreTrackedOnConstruction() {
+        ShardRouting started = TestShardRouting.newShardRouting("test", 0, "node1", true, ShardRoutingState.STARTED);
+        ShardRouting initializing = TestShardRouting.newShardRouting("test", 1, "node1", true, ShardRoutingState.INITIALIZING);
+        ShardRouting relocating = TestShardRouting.newShardRouting("test", 2, "node1", "node2", true, ShardRoutingState.RELOCATING);
+        RoutingNode routingNode = new RoutingNode("node1", node, started, initializing, relocating);
+
+        assertThat(routingNode.initializingShards(), contains(initializing));
+        assertThat(routingNode.relocatingShards(), contains(relocating));
+    }
+
+    public void testMovingShardsAreUpdated() {
+        ShardRouting initializing = TestShardRouting.newShardRouting("test", 0, "node1", true, ShardRoutingState.INITIALIZING);
+        RoutingNode routingNode = new RoutingNode("node1", node);
+        routingNode.add(initializing);
+        assertThat(routingNode.initializingShards(), contains(initializing));
+        assertThat(routingNode.relocatingShards(), empty());
+
+        ShardRouting started = initializing.moveToStarted();
+        routingNode.update(initializing, started);
+        assertThat(routingNode.initializingShards(), empty());
+        assertThat(routingNode.relocatingShards(), empty());
+
+        ShardRouting relocating = started.relocate("node2", 0L);
+        routingNode.update(started, relocating);
+        assertThat(routingNode.initializingShards(), empty());
+        assertThat(routingNode.relocatingShards(), contains(relocating));
+
+        routingNode.remove(relocating);
+        assertThat(routingNode.initializingShards(), empty());
+        assertThat(routingNode.relocatingShards(), empty());
+    }
+}
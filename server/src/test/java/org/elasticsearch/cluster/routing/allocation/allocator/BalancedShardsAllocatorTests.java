@@ -0,0 +1,130 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.routing.allocation.allocator;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.ClusterInfo;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.ESAllocationTestCase;
+import org.elasticsearch.cluster.EmptyClusterInfoService;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.RoutingNode;
+import org.elasticsearch.cluster.routing.RoutingNodes;
+import org.elasticsearch.cluster.routing.RoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.allocation.AllocationService;
+import org.elasticsearch.cluster.routing.allocation.RoutingAllocation;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.gateway.TestGatewayAllocator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.elasticsearch.cluster.routing.ShardRoutingState.INITIALIZING;
+import static org.elasticsearch.cluster.routing.ShardRoutingState.RELOCATING;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class BalancedShardsAllocatorTests extends ESAllocationTestCase {
+
+    public void testBalancingConvergesAndIsDeterministic() {
+        final Settings settings = Settings.builder()
+            .put(BalancedShardsAllocator.THRESHOLD_SETTING.getKey(), randomFrom(1.0f, 1.5f, 2.0f, 3.0f))
+            .build();
+        final ClusterSettings clusterSettings = new ClusterSettings(settings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+
+        final MetaData.Builder metaData = MetaData.builder();
+        final RoutingTable.Builder routingTable = RoutingTable.builder();
+        final int numberOfIndices = randomIntBetween(1, 20);
+        for (int i = 0; i < numberOfIndices; i++) {
+            final IndexMetaData indexMetaData = IndexMetaData.builder("index-" + i)
+                .settings(settings(Version.CURRENT))
+                .numberOfShards(randomIntBetween(1, 8))
+                .numberOfReplicas(randomIntBetween(0, 2))
+                .build();
+            metaData.put(indexMetaData, false);
+            routingTable.addAsNew(indexMetaData);
+        }
+
+        final int numberOfInitialNodes = randomIntBetween(3, 6);
+        final DiscoveryNodes.Builder nodes = DiscoveryNodes.builder();
+        for (int i = 0; i < numberOfInitialNodes; i++) {
+            nodes.add(newNode("node-" + i));
+        }
+        ClusterState clusterState = ClusterState.builder(ClusterName.CLUSTER_NAME_SETTING.getDefault(Settings.EMPTY))
+            .metaData(metaData)
+            .routingTable(routingTable.build())
+            .nodes(nodes)
+            .build();
+
+        final BalancedShardsAllocator allocator = new BalancedShardsAllocator(settings, clusterSettings);
+        final AllocationService allocationService = new MockAllocationService(yesAllocationDeciders(), new TestGatewayAllocator(),
+            allocator, EmptyClusterInfoService.INSTANCE);
+        clusterState = allocationService.reroute(clusterState, "initial allocation");
+        clusterState = applyStartedShardsUntilNoChange(clusterState, allocationService);
+
+        // add empty nodes without rerouting so that the balancer has shards to move
+        final DiscoveryNodes.Builder newNodes = DiscoveryNodes.builder(clusterState.nodes());
+        final int numberOfNewNodes = randomIntBetween(1, 6);
+        for (int i = 0; i < numberOfNewNodes; i++) {
+            newNodes.add(newNode("node-" + (numberOfInitialNodes + i)));
+        }
+        clusterState = ClusterState.builder(clusterState).nodes(newNodes).build();
+
+        // the order of the nodes considered for an index does not depend on which indices were skipped or balanced before
+        assertThat(balance(clusterState, allocator), equalTo(balance(clusterState, allocator)));
+
+        clusterState = allocationService.reroute(clusterState, "nodes added");
+        clusterState = applyStartedShardsUntilNoChange(clusterState, allocationService);
+        assertThat(clusterState.getRoutingNodes().unassigned().size(), equalTo(0));
+        assertThat(clusterState.getRoutingNodes().shardsWithState(INITIALIZING, RELOCATING), empty());
+        // once the cluster is balanced, rebalancing does not move any shard
+        assertThat(allocationService.reroute(clusterState, "balanced"), sameInstance(clusterState));
+    }
+
+    /**
+     * Balances the given cluster state and returns the shards of every node, ignoring the allocation ids which are random.
+     */
+    private static Map<String, List<String>> balance(ClusterState clusterState, BalancedShardsAllocator allocator) {
+        final RoutingAllocation allocation = new RoutingAllocation(yesAllocationDeciders(), new RoutingNodes(clusterState, false),
+            clusterState, ClusterInfo.EMPTY, 0L);
+        allocator.allocate(allocation);
+
+        final Map<String, List<String>> shardsPerNode = new TreeMap<>();
+        for (RoutingNode routingNode : allocation.routingNodes()) {
+            final List<String> shards = new ArrayList<>();
+            for (ShardRouting shardRouting : routingNode) {
+                shards.add(shardRouting.shardId() + (shardRouting.primary() ? "[P]" : "[R]") + " " + shardRouting.state()
+                    + " relocating [" + shardRouting.relocatingNodeId() + "]");
+            }
+            Collections.sort(shards);
+            shardsPerNode.put(routingNode.nodeId(), shards);
+        }
+        return shardsPerNode;
+    }
+}
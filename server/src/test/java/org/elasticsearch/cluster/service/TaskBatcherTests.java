@@ -47,6 +47,7 @@ import java.util.stream.Collectors;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasToString;
 
 public class TaskBatcherTests extends TaskExecutorTests {
@@ -183,6 +184,57 @@ public class TaskBatcherTests extends TaskExecutorTests {
         assertThat(executionOrder, equalTo(Arrays.asList("A0", "A1", "A2", "B3", "B4", "A5", "A6")));
     }
 
+    public void testBatchStats() throws InterruptedException {
+        final Semaphore allowProcessing = new Semaphore(0);
+        final Semaphore startedProcessing = new Semaphore(0);
+        final CountDownLatch processedLatch = new CountDownLatch(3);
+
+        class TaskExecutor implements TestExecutor<String> {
+
+            @Override
+            public void execute(List<String> tasks) {
+                startedProcessing.release(tasks.size());
+                try {
+                    allowProcessing.acquire(tasks.size());
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+
+        TaskExecutor executorA = new TaskExecutor();
+        TaskExecutor executorB = new TaskExecutor();
+
+        final ClusterStateTaskConfig config = ClusterStateTaskConfig.build(Priority.NORMAL);
+        final TestListener listener = new TestListener() {
+            @Override
+            public void onFailure(String source, Exception e) {
+                throw new AssertionError(e);
+            }
+
+            @Override
+            public void processed(String source) {
+                processedLatch.countDown();
+            }
+        };
+        // this blocks the cluster state queue
+        submitTask("0", "A0", config, executorA, listener);
+        startedProcessing.acquire(1);
+        // the executing batch is no longer queued
+        assertNull(taskBatcher.batchStats().get(executorA));
+
+        submitTask("1", "B1", config, executorB, listener);
+        submitTask("2", "B2", config, executorB, listener);
+        TaskBatcher.BatchStats batchStats = taskBatcher.batchStats().get(executorB);
+        assertNotNull(batchStats);
+        assertThat(batchStats.size, equalTo(2));
+        assertThat(batchStats.maxAgeInMillis, greaterThanOrEqualTo(0L));
+
+        allowProcessing.release(3);
+        processedLatch.await();
+        assertThat(taskBatcher.batchStats().entrySet(), empty());
+    }
+
     static class TaskExecutor implements TestExecutor<Integer> {
         List<Integer> tasks = new ArrayList<>();
 
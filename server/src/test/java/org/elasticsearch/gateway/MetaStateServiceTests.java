@@ -28,10 +28,15 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.nullValue;
@@ -39,18 +44,21 @@ import static org.hamcrest.Matchers.nullValue;
 public class MetaStateServiceTests extends ESTestCase {
 
     private NodeEnvironment env;
+    private ThreadPool threadPool;
     private MetaStateService metaStateService;
 
     @Override
     public void setUp() throws Exception {
         super.setUp();
         env = newNodeEnvironment();
-        metaStateService = new MetaStateService(env, xContentRegistry());
+        threadPool = new TestThreadPool(getTestName());
+        metaStateService = new MetaStateService(env, xContentRegistry(), randomBoolean() ? threadPool.generic() : null);
     }
 
     @Override
     public void tearDown() throws Exception {
         super.tearDown();
+        ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
         env.close();
     }
 
@@ -155,6 +163,40 @@ public class MetaStateServiceTests extends ESTestCase {
         assertThat(loadedMetaData.index("test1"), equalTo(index));
     }
 
+    public void testLoadFullStateWithManyIndices() throws IOException {
+        final Map<Index, Long> indexGenerations = new HashMap<>();
+        final Map<String, IndexMetaData> indices = new HashMap<>();
+        for (int i = randomIntBetween(1, 2 * MetaStateService.MIN_INDICES_TO_LOAD_CONCURRENTLY); i > 0; i--) {
+            final IndexMetaData index = indexMetaData("test" + i);
+            indexGenerations.put(index.getIndex(), metaStateService.writeIndex("test", index));
+            indices.put(index.getIndex().getName(), index);
+        }
+        final Manifest manifest = new Manifest(randomNonNegativeLong(), randomNonNegativeLong(),
+                Manifest.empty().getGlobalGeneration(), indexGenerations);
+        metaStateService.writeManifestAndCleanup("test", manifest);
+
+        final MetaData loadedMetaData = metaStateService.loadFullState().v2();
+        assertThat(loadedMetaData.indices().size(), equalTo(indices.size()));
+        for (Map.Entry<String, IndexMetaData> entry : indices.entrySet()) {
+            assertThat(loadedMetaData.index(entry.getKey()), equalTo(entry.getValue()));
+        }
+    }
+
+    public void testLoadFullStateMissingIndexMetaData() throws IOException {
+        final Map<Index, Long> indexGenerations = new HashMap<>();
+        for (int i = randomIntBetween(1, 2 * MetaStateService.MIN_INDICES_TO_LOAD_CONCURRENTLY); i > 0; i--) {
+            final IndexMetaData index = indexMetaData("test" + i);
+            indexGenerations.put(index.getIndex(), metaStateService.writeIndex("test", index));
+        }
+        indexGenerations.put(new Index("missing", UUIDs.randomBase64UUID()), randomNonNegativeLong());
+        final Manifest manifest = new Manifest(randomNonNegativeLong(), randomNonNegativeLong(),
+                Manifest.empty().getGlobalGeneration(), indexGenerations);
+        metaStateService.writeManifestAndCleanup("test", manifest);
+
+        final IOException e = expectThrows(IOException.class, () -> metaStateService.loadFullState());
+        assertThat(e.getMessage(), containsString("failed to find metadata for existing index missing"));
+    }
+
     public void testLoadFullStateAndUpdate() throws IOException {
         IndexMetaData index = indexMetaData("test1");
         MetaData metaData = MetaData.builder()
@@ -49,6 +49,8 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static org.elasticsearch.test.InternalSettingsPlugin.TRANSLOG_RETENTION_CHECK_INTERVAL_SETTING;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.IsEqual.equalTo;
 
 /** Unit test(s) for IndexService */
@@ -153,6 +155,26 @@ public class IndexServiceTests extends ESSingleNodeTestCase {
         assertFalse(task.isScheduled());
     }
 
+    public void testRefreshTaskStaggersFirstRun() throws Exception {
+        // refreshes are disabled so that the task does not run concurrently with the assertions below
+        IndexService indexService = createIndex("test",
+            Settings.builder().put(IndexSettings.INDEX_REFRESH_INTERVAL_SETTING.getKey(), -1).build());
+        IndexService.AsyncRefreshTask refreshTask = indexService.getRefreshTask();
+        assertFalse(refreshTask.isScheduled());
+
+        final TimeValue interval = TimeValue.timeValueMillis(randomLongBetween(1, 10000));
+        for (int i = 0; i < 10; i++) {
+            final long firstDelay = refreshTask.getNextDelay(interval).millis();
+            assertThat(firstDelay, greaterThanOrEqualTo(0L));
+            assertThat(firstDelay, lessThan(interval.millis()));
+        }
+
+        refreshTask.runInternal();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(interval, refreshTask.getNextDelay(interval));
+        }
+    }
+
     public void testRefreshTaskIsUpdated() throws Exception {
         IndexService indexService = createIndex("test", Settings.EMPTY);
         IndexService.AsyncRefreshTask refreshTask = indexService.getRefreshTask();
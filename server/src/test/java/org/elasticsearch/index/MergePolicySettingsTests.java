@@ -18,6 +18,8 @@
  */
 package org.elasticsearch.index;
 
+import org.apache.lucene.index.LogByteSizeMergePolicy;
+import org.apache.lucene.index.MergePolicy;
 import org.apache.lucene.index.NoMergePolicy;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
@@ -31,6 +33,7 @@ import static org.elasticsearch.common.settings.Settings.Builder.EMPTY_SETTINGS;
 import static org.elasticsearch.index.IndexSettingsTests.newIndexMeta;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 
 public class MergePolicySettingsTests extends ESTestCase {
     protected final ShardId shardId = new ShardId("index", "_na_", 1);
@@ -64,6 +67,51 @@ public class MergePolicySettingsTests extends ESTestCase {
         assertTrue(mp.getMergePolicy() instanceof NoMergePolicy);
     }
 
+    public void testMergePolicyType() {
+        assertThat(new MergePolicyConfig(logger, indexSettings(Settings.EMPTY)).getMergePolicy(), instanceOf(EsTieredMergePolicy.class));
+        Settings settings = Settings.builder()
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_TYPE_SETTING.getKey(), "log_byte_size")
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_MAX_MERGE_AT_ONCE_SETTING.getKey(), 5)
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_FLOOR_SEGMENT_SETTING.getKey(), "1mb")
+            .build();
+        MergePolicy mergePolicy = new MergePolicyConfig(logger, indexSettings(settings)).getMergePolicy();
+        assertThat(mergePolicy, instanceOf(LogByteSizeMergePolicy.class));
+        assertThat(((LogByteSizeMergePolicy) mergePolicy).getMergeFactor(), equalTo(5));
+        assertThat(((LogByteSizeMergePolicy) mergePolicy).getMinMergeMB(), equalTo(1.0));
+        // the maximum merged segment size is split across the segments that are merged together
+        assertThat(((LogByteSizeMergePolicy) mergePolicy).getMaxMergeMB(),
+            equalTo(MergePolicyConfig.DEFAULT_MAX_MERGED_SEGMENT.getMbFrac() / 5));
+
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> new MergePolicyConfig(logger,
+            indexSettings(Settings.builder().put(MergePolicyConfig.INDEX_MERGE_POLICY_TYPE_SETTING.getKey(), "unknown").build())));
+        assertThat(e.getMessage(), containsString("unknown merge policy type [unknown]"));
+    }
+
+    public void testLogByteSizeMergePolicySettingsUpdate() throws IOException {
+        IndexSettings indexSettings = indexSettings(Settings.builder()
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_TYPE_SETTING.getKey(), "log_byte_size")
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_MAX_MERGE_AT_ONCE_SETTING.getKey(), 8)
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_MAX_MERGED_SEGMENT_SETTING.getKey(), "1gb")
+            .build());
+        assertEquals(8, ((LogByteSizeMergePolicy) indexSettings.getMergePolicy()).getMergeFactor());
+        assertEquals(128.0, ((LogByteSizeMergePolicy) indexSettings.getMergePolicy()).getMaxMergeMB(), 0.0d);
+
+        indexSettings.updateIndexMetaData(newIndexMeta("index", Settings.builder()
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_TYPE_SETTING.getKey(), "log_byte_size")
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_MAX_MERGE_AT_ONCE_SETTING.getKey(), 8)
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_MAX_MERGED_SEGMENT_SETTING.getKey(), "2gb")
+            .build()));
+        assertEquals(256.0, ((LogByteSizeMergePolicy) indexSettings.getMergePolicy()).getMaxMergeMB(), 0.0d);
+
+        indexSettings.updateIndexMetaData(newIndexMeta("index", Settings.builder()
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_TYPE_SETTING.getKey(), "log_byte_size")
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_MAX_MERGE_AT_ONCE_SETTING.getKey(), 4)
+            .put(MergePolicyConfig.INDEX_MERGE_POLICY_MAX_MERGED_SEGMENT_SETTING.getKey(), "2gb")
+            .build()));
+        assertEquals(4, ((LogByteSizeMergePolicy) indexSettings.getMergePolicy()).getMergeFactor());
+        assertEquals(512.0, ((LogByteSizeMergePolicy) indexSettings.getMergePolicy()).getMaxMergeMB(), 0.0d);
+    }
+
     public void testUpdateSettings() throws IOException {
         IndexSettings indexSettings = indexSettings(EMPTY_SETTINGS);
         assertThat(indexSettings.getMergePolicy().getNoCFSRatio(), equalTo(0.1));
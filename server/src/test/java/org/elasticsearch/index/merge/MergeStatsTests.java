@@ -0,0 +1,112 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.merge;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.VersionUtils;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.elasticsearch.common.xcontent.ToXContent.EMPTY_PARAMS;
+import static org.hamcrest.Matchers.equalTo;
+
+public class MergeStatsTests extends ESTestCase {
+
+    private static MergeStats randomMergeStats() {
+        final MergeStats mergeStats = new MergeStats();
+        mergeStats.add(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+            randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+            randomNonNegativeLong(), randomNonNegativeLong(), randomDoubleBetween(0.0, 1024.0, true));
+        return mergeStats;
+    }
+
+    private static MergeStats copy(MergeStats mergeStats, Version version) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.setVersion(version);
+            mergeStats.writeTo(out);
+            try (StreamInput in = out.bytes().streamInput()) {
+                in.setVersion(version);
+                return new MergeStats(in);
+            }
+        }
+    }
+
+    private static void assertSameTotals(MergeStats expected, MergeStats actual) {
+        assertThat(actual.getTotal(), equalTo(expected.getTotal()));
+        assertThat(actual.getTotalTimeInMillis(), equalTo(expected.getTotalTimeInMillis()));
+        assertThat(actual.getTotalNumDocs(), equalTo(expected.getTotalNumDocs()));
+        assertThat(actual.getTotalSizeInBytes(), equalTo(expected.getTotalSizeInBytes()));
+        assertThat(actual.getCurrent(), equalTo(expected.getCurrent()));
+        assertThat(actual.getCurrentNumDocs(), equalTo(expected.getCurrentNumDocs()));
+        assertThat(actual.getCurrentSizeInBytes(), equalTo(expected.getCurrentSizeInBytes()));
+        assertThat(actual.getTotalStoppedTimeInMillis(), equalTo(expected.getTotalStoppedTimeInMillis()));
+        assertThat(actual.getTotalThrottledTimeInMillis(), equalTo(expected.getTotalThrottledTimeInMillis()));
+        assertThat(actual.getTotalBytesPerSecAutoThrottle(), equalTo(expected.getTotalBytesPerSecAutoThrottle()));
+    }
+
+    public void testSerialization() throws IOException {
+        final MergeStats mergeStats = randomMergeStats();
+        final MergeStats copy = copy(mergeStats, Version.CURRENT);
+        assertSameTotals(mergeStats, copy);
+        assertThat(copy.getCurrentPaused(), equalTo(mergeStats.getCurrentPaused()));
+    }
+
+    public void testSerializationBwc() throws IOException {
+        final MergeStats mergeStats = randomMergeStats();
+        final Version version = VersionUtils.randomVersionBetween(random(), Version.V_7_0_0,
+            VersionUtils.getPreviousVersion(Version.V_8_0_0));
+        final MergeStats copy = copy(mergeStats, version);
+        assertSameTotals(mergeStats, copy);
+        assertThat(copy.getCurrentPaused(), equalTo(0L));
+    }
+
+    public void testCurrentPausedIsSummed() {
+        final MergeStats mergeStats = new MergeStats();
+        mergeStats.add(0, 0, 0, 0, 3, 0, 0, 2, 0, 0, Double.POSITIVE_INFINITY);
+        final MergeStats other = new MergeStats();
+        other.add(0, 0, 0, 0, 1, 0, 0, 1, 0, 0, Double.POSITIVE_INFINITY);
+        mergeStats.add(other);
+        assertThat(mergeStats.getCurrent(), equalTo(4L));
+        assertThat(mergeStats.getCurrentPaused(), equalTo(3L));
+    }
+
+    public void testToXContent() throws IOException {
+        final MergeStats mergeStats = new MergeStats();
+        mergeStats.add(0, 0, 0, 0, 3, 0, 0, 2, 0, 0, Double.POSITIVE_INFINITY);
+        final XContentBuilder builder = JsonXContent.contentBuilder();
+        builder.startObject();
+        mergeStats.toXContent(builder, EMPTY_PARAMS);
+        builder.endObject();
+        final Map<String, Object> map = XContentHelper.convertToMap(XContentType.JSON.xContent(), Strings.toString(builder), false);
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> merges = (Map<String, Object>) map.get("merges");
+        assertThat(merges.get("current"), equalTo(3));
+        assertThat(merges.get("current_paused"), equalTo(2));
+    }
+}
@@ -601,6 +601,24 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    public void testSnapshotWithOperationsAroundReadAheadSize() throws IOException {
+        ArrayList<Translog.Operation> ops = new ArrayList<>();
+        final int numOps = randomIntBetween(1, 100);
+        for (int i = 0; i < numOps; i++) {
+            final int sourceLength = randomBoolean()
+                ? randomIntBetween(1, 128) : randomIntBetween(TranslogSnapshot.READ_AHEAD_SIZE - 64, 2 * TranslogSnapshot.READ_AHEAD_SIZE);
+            addToTranslogAndList(translog, ops,
+                new Translog.Index("test", Integer.toString(i), i, primaryTerm.get(), randomByteArrayOfLength(sourceLength)));
+            if (rarely()) {
+                translog.rollGeneration();
+            }
+        }
+        try (Translog.Snapshot snapshot = translog.newSnapshot()) {
+            assertThat(snapshot, SnapshotMatchers.equalsTo(ops));
+            assertThat(snapshot.totalOperations(), equalTo(numOps));
+        }
+    }
+
     public void testReadLocation() throws IOException {
         ArrayList<Translog.Operation> ops = new ArrayList<>();
         ArrayList<Translog.Location> locs = new ArrayList<>();
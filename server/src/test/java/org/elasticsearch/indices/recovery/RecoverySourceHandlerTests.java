@@ -91,6 +91,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -236,14 +237,14 @@ public class RecoverySourceHandlerTests extends ESTestCase {
         final AtomicLong checkpointOnTarget = new AtomicLong(SequenceNumbers.NO_OPS_PERFORMED);
         RecoveryTargetHandler recoveryTarget = new TestRecoveryTargetHandler() {
             @Override
-            public void indexTranslogOperations(List<Translog.Operation> operations, int totalTranslogOps, long timestamp, long msu,
-                                                RetentionLeases retentionLeases, ActionListener<Long> listener) {
+            public synchronized void indexTranslogOperations(List<Translog.Operation> operations, int totalTranslogOps, long timestamp,
+                                                             long msu, RetentionLeases retentionLeases, ActionListener<Long> listener) {
                 shippedOps.addAll(operations);
                 checkpointOnTarget.set(randomLongBetween(checkpointOnTarget.get(), Long.MAX_VALUE));
                 listener.onResponse(checkpointOnTarget.get());            }
         };
-        RecoverySourceHandler handler = new RecoverySourceHandler(
-            shard, new AsyncRecoveryTarget(recoveryTarget, threadPool.generic()), request, fileChunkSizeInBytes, between(1, 10));
+        RecoverySourceHandler handler = new RecoverySourceHandler(shard, new AsyncRecoveryTarget(recoveryTarget, threadPool.generic()),
+            request, fileChunkSizeInBytes, between(1, 10), between(1, 4));
         PlainActionFuture<RecoverySourceHandler.SendSnapshotResult> future = new PlainActionFuture<>();
         handler.phase2(startingSeqNo, endingSeqNo, newTranslogSnapshot(operations, Collections.emptyList()),
             randomNonNegativeLong(), randomNonNegativeLong(), RetentionLeases.EMPTY, future);
@@ -293,6 +294,87 @@ public class RecoverySourceHandlerTests extends ESTestCase {
         }
     }
 
+    public void testSendSnapshotStopsAllSendersOnError() throws Exception {
+        final StartRecoveryRequest request = getStartRecoveryRequest();
+        final IndexShard shard = mock(IndexShard.class);
+        when(shard.state()).thenReturn(IndexShardState.STARTED);
+        final List<Translog.Operation> ops = new ArrayList<>();
+        for (int numOps = between(10, 256), i = 0; i < numOps; i++) {
+            final Engine.Index index = getIndex(Integer.toString(i));
+            ops.add(new Translog.Index(index, new Engine.IndexResult(1, 1, i, true)));
+        }
+        // fail either a batch on the target or a read from the snapshot, possibly while the senders are still being started
+        final boolean failOnTarget = randomBoolean();
+        final int failAt = between(0, 8);
+        final AtomicInteger sentBatches = new AtomicInteger();
+        RecoveryTargetHandler recoveryTarget = new TestRecoveryTargetHandler() {
+            @Override
+            public void indexTranslogOperations(List<Translog.Operation> operations, int totalTranslogOps, long timestamp,
+                                                long msu, RetentionLeases retentionLeases, ActionListener<Long> listener) {
+                if (failOnTarget && sentBatches.getAndIncrement() == failAt) {
+                    listener.onFailure(new RuntimeException("test - failed to index"));
+                } else {
+                    listener.onResponse(SequenceNumbers.NO_OPS_PERFORMED);
+                }
+            }
+        };
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicInteger reads = new AtomicInteger();
+        final AtomicInteger readsAfterClose = new AtomicInteger();
+        final Translog.Snapshot delegate = newTranslogSnapshot(ops, Collections.emptyList());
+        final Translog.Snapshot snapshot = new Translog.Snapshot() {
+            @Override
+            public int totalOperations() {
+                return delegate.totalOperations();
+            }
+
+            @Override
+            public int skippedOperations() {
+                return delegate.skippedOperations();
+            }
+
+            @Override
+            public Translog.Operation next() throws IOException {
+                if (closed.get()) {
+                    readsAfterClose.incrementAndGet();
+                }
+                if (failOnTarget == false && reads.getAndIncrement() == failAt) {
+                    throw new IOException("test - failed to read");
+                }
+                return delegate.next();
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        RecoverySourceHandler handler = new RecoverySourceHandler(shard, new AsyncRecoveryTarget(recoveryTarget, threadPool.generic()),
+            request, between(1, 16), between(1, 10), between(2, 4));
+        final AtomicInteger failures = new AtomicInteger();
+        final PlainActionFuture<RecoverySourceHandler.SendSnapshotResult> future = new PlainActionFuture<>();
+        // like the recovery, close the snapshot as soon as phase 2 completed
+        handler.phase2(0, ops.size() - 1, snapshot, randomNonNegativeLong(), randomNonNegativeLong(), RetentionLeases.EMPTY,
+            new ActionListener<RecoverySourceHandler.SendSnapshotResult>() {
+                @Override
+                public void onResponse(RecoverySourceHandler.SendSnapshotResult result) {
+                    snapshot.close();
+                    future.onResponse(result);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    failures.incrementAndGet();
+                    snapshot.close();
+                    future.onFailure(e);
+                }
+            });
+        final ExecutionException e = expectThrows(ExecutionException.class, future::get);
+        assertThat(e.getCause().getMessage(), equalTo(failOnTarget ? "test - failed to index" : "test - failed to read"));
+        assertThat(failures.get(), equalTo(1));
+        assertThat(readsAfterClose.get(), equalTo(0));
+    }
+
     private Engine.Index getIndex(final String id) {
         final String type = "test";
         final ParseContext.Document document = new ParseContext.Document();
@@ -240,6 +240,7 @@ public class RecoveryTargetTests extends ESTestCase {
         assertThat(index.totalRecoverFiles(), equalTo(filesToRecover.size()));
         assertThat(index.recoveredFileCount(), equalTo(0));
         assertThat(index.recoveredBytes(), equalTo(0L));
+        assertThat(index.recoveredBytesPerSecond(), equalTo(0L));
         assertThat(index.recoveredFilesPercent(), equalTo(filesToRecover.size() == 0 ? 100.0f : 0.0f));
         assertThat(index.recoveredBytesPercent(), equalTo(filesToRecover.size() == 0 ? 100.0f : 0.0f));
 
@@ -294,6 +295,11 @@ public class RecoveryTargetTests extends ESTestCase {
             assertThat(filesToRecover.size(), equalTo(0));
             index.stop();
             assertThat(index.time(), greaterThanOrEqualTo(0L));
+            if (index.time() > 0) {
+                assertThat(index.recoveredBytesPerSecond(), equalTo(recoveredBytes * 1000L / index.time()));
+            } else {
+                assertThat(index.recoveredBytesPerSecond(), equalTo(0L));
+            }
         }
 
         logger.info("testing serialized information");
@@ -92,6 +92,39 @@ public class IngestDocumentTests extends ESTestCase {
             equalTo(BOGUS_TIMESTAMP));
     }
 
+    public void testSamePathOnDifferentDocuments() {
+        Map<String, Object> document = new HashMap<>();
+        document.put("foo", "baz");
+        document.put("fizz", Collections.singletonMap("buzz", "other"));
+        IngestDocument otherDocument = new IngestDocument("other_index", "type", "id", null, null, null, document);
+
+        // parsed paths are cached, but must always be resolved against the document they are used on
+        for (int i = 0; i < 2; i++) {
+            assertThat(ingestDocument.getFieldValue("foo", String.class), equalTo("bar"));
+            assertThat(otherDocument.getFieldValue("foo", String.class), equalTo("baz"));
+            assertThat(ingestDocument.getFieldValue("fizz.buzz", String.class), equalTo("hello world"));
+            assertThat(otherDocument.getFieldValue("fizz.buzz", String.class), equalTo("other"));
+            assertThat(ingestDocument.getFieldValue("_index", String.class), equalTo("index"));
+            assertThat(otherDocument.getFieldValue("_index", String.class), equalTo("other_index"));
+            otherDocument.setFieldValue("_ingest.marker", i);
+            assertThat(otherDocument.getFieldValue("_ingest.marker", Integer.class), equalTo(i));
+            assertFalse(ingestDocument.hasField("_ingest.marker"));
+        }
+    }
+
+    public void testFieldPathCacheIsBounded() {
+        int numPaths = randomIntBetween(IngestDocument.MAX_CACHED_FIELD_PATHS + 1, 4 * IngestDocument.MAX_CACHED_FIELD_PATHS);
+        for (int i = 0; i < numPaths; i++) {
+            assertThat(ingestDocument.getFieldValue("fizz.buzz", String.class), equalTo("hello world"));
+            ingestDocument.setFieldValue("rendered_" + i + ".field", i);
+            assertThat(ingestDocument.getFieldValue("rendered_" + i + ".field", Integer.class), equalTo(i));
+            assertThat(IngestDocument.cachedFieldPathCount(), lessThanOrEqualTo(IngestDocument.MAX_CACHED_FIELD_PATHS));
+        }
+        for (int i = 0; i < numPaths; i++) {
+            assertThat(ingestDocument.getFieldValue("rendered_" + i + ".field", Integer.class), equalTo(i));
+        }
+    }
+
     public void testGetSourceObject() {
         try {
             ingestDocument.getFieldValue("_source", Object.class);
@@ -43,7 +43,10 @@ import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.plugins.IngestPlugin;
@@ -54,19 +57,27 @@ import org.hamcrest.CustomTypeSafeMatcher;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.instanceOf;
@@ -121,9 +132,9 @@ public class IngestServiceTests extends ESTestCase {
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
 
         final SetOnce<Boolean> failure = new SetOnce<>();
-        final BiConsumer<IndexRequest, Exception> failureHandler = (request, e) -> {
+        final BiConsumer<Integer, Exception> failureHandler = (slot, e) -> {
             failure.set(true);
-            assertThat(request, sameInstance(indexRequest));
+            assertThat(slot, equalTo(0));
             assertThat(e, instanceOf(IllegalArgumentException.class));
             assertThat(e.getMessage(), equalTo("pipeline with id [_id] does not exist"));
         };
@@ -459,7 +470,7 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         final SetOnce<Boolean> failure = new SetOnce<>();
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline(id);
-        final BiConsumer<IndexRequest, Exception> failureHandler = (request, e) -> {
+        final BiConsumer<Integer, Exception> failureHandler = (slot, e) -> {
             assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
             assertThat(e.getCause().getCause(), instanceOf(IllegalStateException.class));
             assertThat(e.getCause().getCause().getMessage(), equalTo("error"));
@@ -494,18 +505,12 @@ public class IngestServiceTests extends ESTestCase {
             new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("does_not_exist");
         bulkRequest.add(indexRequest2);
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(bulkRequest.requests(), failureHandler, completionHandler, indexReq -> {});
         verify(failureHandler, times(1)).accept(
-            argThat(new CustomTypeSafeMatcher<IndexRequest>("failure handler was not called with the expected arguments") {
-                @Override
-                protected boolean matchesSafely(IndexRequest item) {
-                    return item == indexRequest2;
-                }
-
-            }),
+            eq(1),
             argThat(new CustomTypeSafeMatcher<IllegalArgumentException>("failure handler was not called with the expected arguments") {
                 @Override
                 protected boolean matchesSafely(IllegalArgumentException iae) {
@@ -527,7 +532,7 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
@@ -545,7 +550,7 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
@@ -580,7 +585,7 @@ public class IngestServiceTests extends ESTestCase {
         }).when(processor).execute(any());
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
@@ -610,12 +615,12 @@ public class IngestServiceTests extends ESTestCase {
             .when(processor)
             .execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
         verify(processor).execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), emptyMap()));
-        verify(failureHandler, times(1)).accept(eq(indexRequest), any(RuntimeException.class));
+        verify(failureHandler, times(1)).accept(eq(0), any(RuntimeException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -637,11 +642,11 @@ public class IngestServiceTests extends ESTestCase {
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         doThrow(new RuntimeException()).when(processor).execute(eqIndexTypeId(emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
-        verify(failureHandler, never()).accept(eq(indexRequest), any(ElasticsearchException.class));
+        verify(failureHandler, never()).accept(eq(0), any(ElasticsearchException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -674,12 +679,12 @@ public class IngestServiceTests extends ESTestCase {
             .when(processor)
             .execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, indexReq -> {});
         verify(processor).execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), emptyMap()));
-        verify(failureHandler, times(1)).accept(eq(indexRequest), any(RuntimeException.class));
+        verify(failureHandler, times(1)).accept(eq(0), any(RuntimeException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -720,12 +725,12 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
 
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> requestItemErrorHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> requestItemErrorHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler, indexReq -> {});
 
-        verify(requestItemErrorHandler, times(numIndexRequests)).accept(any(IndexRequest.class), argThat(new ArgumentMatcher<Exception>() {
+        verify(requestItemErrorHandler, times(numIndexRequests)).accept(any(Integer.class), argThat(new ArgumentMatcher<Exception>() {
             @Override
             public boolean matches(final Object o) {
                 return ((Exception)o).getCause().getCause().equals(error);
@@ -754,7 +759,7 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
 
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> requestItemErrorHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> requestItemErrorHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
         ingestService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler, indexReq -> {});
@@ -763,6 +768,170 @@ public class IngestServiceTests extends ESTestCase {
         verify(completionHandler, times(1)).accept(null);
     }
 
+    public void testBulkRequestExecutionInBatches() throws Exception {
+        BulkRequest bulkRequest = new BulkRequest();
+        int numRequest = scaledRandomIntBetween(IngestService.MIN_DOCUMENTS_PER_BATCH, 8 * IngestService.MIN_DOCUMENTS_PER_BATCH);
+        Set<String> expectedFailures = new HashSet<>();
+        for (int i = 0; i < numRequest; i++) {
+            boolean fail = rarely();
+            bulkRequest.add(indexRequest(i, fail));
+            if (fail) {
+                expectedFailures.add(String.valueOf(i));
+            }
+        }
+
+        Set<String> failures = ConcurrentCollections.newConcurrentSet();
+        Map<String, AtomicInteger> executions = ConcurrentCollections.newConcurrentMap();
+        List<Exception> completions = executeBulkRequestInBatches(bulkRequest, (slot, e) -> failures.add(String.valueOf(slot)),
+            executions);
+
+        assertThat(completions.size(), equalTo(1));
+        assertThat(completions.get(0), nullValue());
+        assertThat(failures, equalTo(expectedFailures));
+        for (DocWriteRequest<?> request : bulkRequest.requests()) {
+            IndexRequest indexRequest = (IndexRequest) request;
+            assertThat(executions.get(indexRequest.id()).get(), equalTo(1));
+            if (expectedFailures.contains(indexRequest.id()) == false) {
+                assertThat(indexRequest.sourceAsMap().get("processed"), equalTo(true));
+                assertThat(indexRequest.getPipeline(), equalTo(IngestService.NOOP_PIPELINE_NAME));
+            }
+        }
+    }
+
+    public void testBulkRequestExecutionInBatchesCompletesOnceOnFailure() throws Exception {
+        BulkRequest bulkRequest = new BulkRequest();
+        int numRequest = scaledRandomIntBetween(IngestService.MIN_DOCUMENTS_PER_BATCH, 8 * IngestService.MIN_DOCUMENTS_PER_BATCH);
+        int failingSlot = randomInt(numRequest - 1);
+        for (int i = 0; i < numRequest; i++) {
+            bulkRequest.add(indexRequest(i, i == failingSlot || rarely()));
+        }
+
+        Set<Exception> thrown = ConcurrentCollections.newConcurrentSet();
+        List<Exception> completions = executeBulkRequestInBatches(bulkRequest, (slot, e) -> {
+            RuntimeException exception = new RuntimeException("failure handler failed for slot [" + slot + "]");
+            thrown.add(exception);
+            throw exception;
+        }, ConcurrentCollections.newConcurrentMap());
+
+        assertThat(completions.size(), equalTo(1));
+        assertThat(completions.get(0), notNullValue());
+        assertTrue(thrown.contains(completions.get(0)));
+        // the failures of the other batches are suppressed by the first one
+        for (Throwable suppressed : completions.get(0).getSuppressed()) {
+            assertTrue(thrown.contains(suppressed));
+        }
+    }
+
+    public void testBulkRequestExecutionWithDuplicateRequests() throws Exception {
+        BulkRequest bulkRequest = new BulkRequest();
+        int numRequest = scaledRandomIntBetween(IngestService.MIN_DOCUMENTS_PER_BATCH, 8 * IngestService.MIN_DOCUMENTS_PER_BATCH);
+        boolean fail = randomBoolean();
+        IndexRequest duplicate = indexRequest(numRequest, fail);
+        int firstSlot = randomInt(numRequest - 1);
+        int secondSlot = randomIntBetween(firstSlot + 1, numRequest);
+        for (int i = 0; i < numRequest; i++) {
+            if (i == firstSlot) {
+                bulkRequest.add(duplicate);
+            }
+            bulkRequest.add(indexRequest(i, false));
+            if (i + 1 == secondSlot) {
+                bulkRequest.add(duplicate);
+            }
+        }
+        assertThat(bulkRequest.requests().get(firstSlot), sameInstance(duplicate));
+        assertThat(bulkRequest.requests().get(secondSlot + 1), sameInstance(duplicate));
+
+        Set<Integer> failures = ConcurrentCollections.newConcurrentSet();
+        Map<String, AtomicInteger> executions = ConcurrentCollections.newConcurrentMap();
+        List<Exception> completions = executeBulkRequestInBatches(bulkRequest, (slot, e) -> failures.add(slot), executions);
+
+        assertThat(completions.size(), equalTo(1));
+        assertThat(completions.get(0), nullValue());
+        if (fail) {
+            // the pipeline runs again for the second occurrence of a request that failed, and fails again
+            assertThat(failures, equalTo(new HashSet<>(Arrays.asList(firstSlot, secondSlot + 1))));
+            assertThat(executions.get(duplicate.id()).get(), equalTo(2));
+        } else {
+            assertThat(failures, empty());
+            assertThat(executions.get(duplicate.id()).get(), equalTo(1));
+            assertThat(duplicate.getPipeline(), equalTo(IngestService.NOOP_PIPELINE_NAME));
+        }
+        for (int i = 0; i < numRequest; i++) {
+            assertThat(executions.get(String.valueOf(i)).get(), equalTo(1));
+        }
+    }
+
+    private static IndexRequest indexRequest(int id, boolean fail) {
+        IndexRequest indexRequest = new IndexRequest("_index", "_type", String.valueOf(id)).setPipeline("_id");
+        indexRequest.source(Requests.INDEX_CONTENT_TYPE, "field1", "value1", "fail", fail);
+        return indexRequest;
+    }
+
+    /**
+     * Executes the given bulk request with a pipeline whose processor fails the documents that have their {@code fail} field set
+     * and counts its executions per id, on a write thread pool with several threads. The thread pool is terminated before the calls
+     * to the completion handler are returned, so that a late call would be returned too.
+     */
+    private static List<Exception> executeBulkRequestInBatches(BulkRequest bulkRequest, BiConsumer<Integer, Exception> failureHandler,
+                                                               Map<String, AtomicInteger> executions) throws Exception {
+        int numThreads = randomIntBetween(2, 4);
+        ThreadPool threadPool = mock(ThreadPool.class);
+        ExecutorService executorService = EsExecutors.newFixed("test_ingest_write", numThreads, randomIntBetween(1, 16),
+            EsExecutors.daemonThreadFactory("test_ingest_write"), new ThreadContext(Settings.EMPTY));
+        when(threadPool.executor(anyString())).thenReturn(executorService);
+        when(threadPool.info(ThreadPool.Names.WRITE)).thenReturn(
+            new ThreadPool.Info(ThreadPool.Names.WRITE, ThreadPool.ThreadPoolType.FIXED, numThreads));
+        List<Exception> completions = Collections.synchronizedList(new ArrayList<>());
+        try {
+            Processor processor = new Processor() {
+                @Override
+                public IngestDocument execute(IngestDocument ingestDocument) {
+                    String id = ingestDocument.getFieldValue(IngestDocument.MetaData.ID.getFieldName(), String.class);
+                    executions.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet();
+                    if (ingestDocument.getFieldValue("fail", Boolean.class)) {
+                        throw new IllegalStateException("failed");
+                    }
+                    ingestDocument.setFieldValue("processed", true);
+                    return ingestDocument;
+                }
+
+                @Override
+                public String getType() {
+                    return "mock";
+                }
+
+                @Override
+                public String getTag() {
+                    return null;
+                }
+            };
+            IngestService ingestService = new IngestService(mock(ClusterService.class), threadPool, null, null,
+                null, Collections.singletonList(new IngestPlugin() {
+                @Override
+                public Map<String, Processor.Factory> getProcessors(final Processor.Parameters parameters) {
+                    return Collections.singletonMap("mock", (factories, tag, config) -> processor);
+                }
+            }));
+            PutPipelineRequest putRequest = new PutPipelineRequest("_id",
+                new BytesArray("{\"processors\": [{\"mock\" : {}}]}"), XContentType.JSON);
+            ClusterState clusterState = ClusterState.builder(new ClusterName("_name")).build();
+            ClusterState previousClusterState = clusterState;
+            clusterState = IngestService.innerPut(putRequest, clusterState);
+            ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
+
+            CountDownLatch latch = new CountDownLatch(1);
+            ingestService.executeBulkRequest(bulkRequest.requests(), failureHandler,
+                e -> {
+                    completions.add(e);
+                    latch.countDown();
+                }, slot -> fail("no request should be dropped"));
+            latch.await();
+        } finally {
+            assertTrue(ThreadPool.terminate(executorService, 10, TimeUnit.SECONDS));
+        }
+        return new ArrayList<>(completions);
+    }
+
     public void testStats() throws Exception {
         final Processor processor = mock(Processor.class);
         final Processor processorFailure = mock(Processor.class);
@@ -793,7 +962,7 @@ public class IngestServiceTests extends ESTestCase {
         clusterState = IngestService.innerPut(putRequest, clusterState);
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
 
-        @SuppressWarnings("unchecked") final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        @SuppressWarnings("unchecked") final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked") final Consumer<Exception> completionHandler = mock(Consumer.class);
 
         final IndexRequest indexRequest = new IndexRequest("_index");
@@ -926,15 +1095,14 @@ public class IngestServiceTests extends ESTestCase {
         ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
-        @SuppressWarnings("unchecked")
-        final Consumer<IndexRequest> dropHandler = mock(Consumer.class);
+        final IntConsumer dropHandler = mock(IntConsumer.class);
         ingestService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler, dropHandler);
         verify(failureHandler, never()).accept(any(), any());
         verify(completionHandler, times(1)).accept(null);
-        verify(dropHandler, times(1)).accept(indexRequest);
+        verify(dropHandler, times(1)).accept(0);
     }
 
     private IngestDocument eqIndexTypeId(final Map<String, Object> source) {
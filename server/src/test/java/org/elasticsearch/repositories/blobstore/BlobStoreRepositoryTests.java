@@ -25,6 +25,9 @@ import org.elasticsearch.client.Client;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.plugins.Plugin;
@@ -46,13 +49,20 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import static org.elasticsearch.repositories.RepositoryDataTests.generateRandomRepoData;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 /**
  * Tests for the {@link BlobStoreRepository} and its subclasses.
@@ -133,6 +143,58 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
         assertThat(snapshotIds, equalTo(originalSnapshots));
     }
 
+    public void testSnapshotRestoreAndDeleteWithConcurrency() throws Exception {
+        final Client client = client();
+        final Path location = ESIntegTestCase.randomRepoPath(node().settings());
+        final String repositoryName = "test-repo";
+
+        logger.info("-->  creating repository");
+        AcknowledgedResponse putRepositoryResponse =
+            client.admin().cluster().preparePutRepository(repositoryName)
+                                    .setType(REPO_TYPE)
+                                    .setSettings(Settings.builder().put(node().settings()).put("location", location)
+                                        .put(BlobStoreRepository.MAX_CONCURRENT_FILE_UPLOADS_SETTING.getKey(), randomIntBetween(2, 4))
+                                        .put(BlobStoreRepository.MAX_CONCURRENT_FILE_RESTORES_SETTING.getKey(), randomIntBetween(2, 4))
+                                        .put(BlobStoreRepository.MAX_CONCURRENT_SHARD_DELETES_SETTING.getKey(), randomIntBetween(2, 4)))
+                                    .get();
+        assertThat(putRepositoryResponse.isAcknowledged(), equalTo(true));
+
+        logger.info("--> creating an index and indexing documents in several segments");
+        final String indexName = "test-idx";
+        createIndex(indexName, Settings.builder().put("index.number_of_shards", randomIntBetween(1, 3)).build());
+        ensureGreen();
+        int numDocs = 0;
+        for (int segment = randomIntBetween(2, 5); segment > 0; segment--) {
+            for (int i = randomIntBetween(1, 10); i > 0; i--) {
+                client().prepareIndex(indexName, "type1", Integer.toString(numDocs++)).setSource("text", "sometext").get();
+            }
+            client().admin().indices().prepareFlush(indexName).get();
+        }
+
+        logger.info("--> create snapshot");
+        final CreateSnapshotResponse createSnapshotResponse = client.admin()
+                                                                    .cluster()
+                                                                    .prepareCreateSnapshot(repositoryName, "test-snap")
+                                                                    .setWaitForCompletion(true)
+                                                                    .setIndices(indexName)
+                                                                    .get();
+        assertThat(createSnapshotResponse.getSnapshotInfo().state(), equalTo(SnapshotState.SUCCESS));
+        assertThat(createSnapshotResponse.getSnapshotInfo().successfulShards(),
+            equalTo(createSnapshotResponse.getSnapshotInfo().totalShards()));
+
+        logger.info("--> restore snapshot");
+        client().admin().indices().prepareDelete(indexName).get();
+        client.admin().cluster().prepareRestoreSnapshot(repositoryName, "test-snap").setWaitForCompletion(true).get();
+        ensureGreen();
+        assertThat(client().prepareSearch(indexName).setSize(0).get().getHits().getTotalHits().value, equalTo((long) numDocs));
+
+        logger.info("--> delete snapshot");
+        client.admin().cluster().prepareDeleteSnapshot(repositoryName, "test-snap").get();
+        final BlobStoreRepository repository =
+            (BlobStoreRepository) getInstanceFromNode(RepositoriesService.class).repository(repositoryName);
+        assertThat(repository.getRepositoryData().getSnapshotIds().size(), equalTo(0));
+    }
+
     public void testReadAndWriteSnapshotsThroughIndexFile() throws Exception {
         final BlobStoreRepository repository = setupRepo();
 
@@ -247,6 +309,109 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
                 .get());
     }
 
+    public void testRunConcurrentlyProcessesEveryItemOnce() throws Exception {
+        final List<Integer> items = randomItems();
+        final Set<Integer> processed = ConcurrentCollections.newConcurrentSet();
+        final ExecutorService executor = randomBoolean() ? null : newExecutor(between(1, 4));
+        try {
+            BlobStoreRepository.runConcurrently(executor, between(1, 5), items, item -> assertTrue(processed.add(item)));
+        } finally {
+            terminate(executor);
+        }
+        assertThat(processed, equalTo(new HashSet<>(items)));
+    }
+
+    public void testRunConcurrentlyStopsPickingItemsAfterFailure() {
+        final List<Integer> items = randomItems();
+        final int failAt = randomFrom(items);
+        final IOException exception = new IOException("simulated");
+        final List<Integer> processed = new ArrayList<>();
+        // a direct executor runs the first task inline, so the items are processed in order until one of them fails
+        final IOException e = expectThrows(IOException.class, () -> BlobStoreRepository.runConcurrently(
+            EsExecutors.newDirectExecutorService(), between(1, 5), items, item -> {
+                processed.add(item);
+                if (item == failAt) {
+                    throw exception;
+                }
+            }));
+        assertThat(e, sameInstance(exception));
+        assertThat(processed, equalTo(items.subList(0, failAt + 1)));
+    }
+
+    public void testRunConcurrentlyRethrowsFailure() throws Exception {
+        final List<Integer> items = randomItems();
+        final int failAt = randomFrom(items);
+        final IOException exception = new IOException("simulated");
+        final Set<Integer> processed = ConcurrentCollections.newConcurrentSet();
+        final ExecutorService executor = newExecutor(between(1, 4));
+        final int processedOnReturn;
+        try {
+            final IOException e = expectThrows(IOException.class, () -> BlobStoreRepository.runConcurrently(
+                executor, between(2, 5), items, item -> {
+                    assertTrue(processed.add(item));
+                    if (item == failAt) {
+                        throw exception;
+                    }
+                }));
+            assertThat(e, sameInstance(exception));
+            processedOnReturn = processed.size();
+        } finally {
+            terminate(executor);
+        }
+        assertThat(processed, hasItem(failAt));
+        // all tasks completed or were cancelled before the failure was rethrown
+        assertThat(processed.size(), equalTo(processedOnReturn));
+    }
+
+    public void testRunConcurrentlyDoesNotWaitForSaturatedExecutor() throws Exception {
+        final List<Integer> items = randomItems(2);
+        final List<Thread> processingThreads = new CopyOnWriteArrayList<>();
+        final ExecutorService executor = newExecutor(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            blocked.await();
+            if (randomBoolean()) {
+                // the executor rejects the tasks instead of queueing them
+                executor.shutdown();
+            }
+            BlobStoreRepository.runConcurrently(executor, between(2, 5), items,
+                item -> processingThreads.add(Thread.currentThread()));
+        } finally {
+            release.countDown();
+            terminate(executor);
+        }
+        // the tasks that never ran were cancelled, so the calling thread processed all the items
+        assertThat(processingThreads.size(), equalTo(items.size()));
+        for (Thread thread : processingThreads) {
+            assertThat(thread, sameInstance(Thread.currentThread()));
+        }
+    }
+
+    private static List<Integer> randomItems() {
+        return randomItems(1);
+    }
+
+    private static List<Integer> randomItems(int minItems) {
+        final List<Integer> items = new ArrayList<>();
+        for (int i = between(minItems, 100); i > 0; i--) {
+            items.add(items.size());
+        }
+        return items;
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        return EsExecutors.newFixed("test", threads, -1, EsExecutors.daemonThreadFactory("test"), new ThreadContext(Settings.EMPTY));
+    }
+
     private BlobStoreRepository setupRepo() {
         final Client client = client();
         final Path location = ESIntegTestCase.randomRepoPath(node().settings());
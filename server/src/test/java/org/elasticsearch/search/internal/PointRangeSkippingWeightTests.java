@@ -0,0 +1,146 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.internal;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocValuesFieldExistsQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.instanceOf;
+
+public class PointRangeSkippingWeightTests extends ESTestCase {
+
+    public void testSkipSegmentsOutsideOfRange() throws IOException {
+        try (Directory dir = newDirectory();
+             IndexWriter w = new IndexWriter(dir, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+            // one segment per range of values
+            indexDocs(w, 0, 10);
+            indexDocs(w, 100, 110);
+            Document doc = new Document();
+            doc.add(new StringField("other", "value", Field.Store.NO));
+            w.addDocument(doc);
+            w.commit();
+
+            try (DirectoryReader reader = DirectoryReader.open(w)) {
+                assertEquals(3, reader.leaves().size());
+                IndexSearcher searcher = new IndexSearcher(reader);
+                PointRangeQuery query = (PointRangeQuery) LongPoint.newRangeQuery("field", 50, 200);
+                PointRangeSkippingWeight weight =
+                    new PointRangeSkippingWeight(query, query, searcher.createWeight(query, ScoreMode.COMPLETE_NO_SCORES, 1f));
+                assertTrue(weight.canSkip(reader.leaves().get(0)));
+                assertNull(weight.scorer(reader.leaves().get(0)));
+                assertNull(weight.scorerSupplier(reader.leaves().get(0)));
+                assertNull(weight.bulkScorer(reader.leaves().get(0)));
+                assertFalse(weight.canSkip(reader.leaves().get(1)));
+                assertNotNull(weight.scorer(reader.leaves().get(1)));
+                // no points at all
+                assertTrue(weight.canSkip(reader.leaves().get(2)));
+
+                assertEquals(10, searcher.count(query));
+            }
+        }
+    }
+
+    public void testSkipSegmentsOfMappedRangeQuery() throws IOException {
+        try (Directory dir = newDirectory();
+             IndexWriter w = new IndexWriter(dir, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+            indexDocsWithDocValues(w, 0, 10);
+            indexDocsWithDocValues(w, 100, 110);
+
+            try (DirectoryReader reader = DirectoryReader.open(w)) {
+                assertEquals(2, reader.leaves().size());
+                Engine.Searcher engineSearcher = new Engine.Searcher("test", new IndexSearcher(reader), null);
+                ContextIndexSearcher searcher = new ContextIndexSearcher(engineSearcher, null, new QueryCachingPolicy() {
+                    @Override
+                    public void onUse(Query query) {
+                    }
+
+                    @Override
+                    public boolean shouldCache(Query query) {
+                        return false;
+                    }
+                });
+
+                // range queries on numeric fields with doc values are index or doc values queries
+                Query rangeQuery = NumberFieldMapper.NumberType.LONG.rangeQuery("field", 50L, 200L, true, true, true);
+                assertThat(rangeQuery, instanceOf(IndexOrDocValuesQuery.class));
+                Weight weight = searcher.createWeight(searcher.rewrite(rangeQuery), ScoreMode.COMPLETE_NO_SCORES, 1f);
+                assertThat(weight, instanceOf(PointRangeSkippingWeight.class));
+                assertSame(rangeQuery, weight.getQuery());
+                assertTrue(((PointRangeSkippingWeight) weight).canSkip(reader.leaves().get(0)));
+                assertNull(weight.scorerSupplier(reader.leaves().get(0)));
+                assertFalse(((PointRangeSkippingWeight) weight).canSkip(reader.leaves().get(1)));
+                assertNotNull(weight.scorerSupplier(reader.leaves().get(1)));
+                assertEquals(10, searcher.count(rangeQuery));
+
+                // the segment is also skipped when the range is a required clause of a conjunction
+                Query conjunction = new BooleanQuery.Builder()
+                    .add(new DocValuesFieldExistsQuery("field"), BooleanClause.Occur.MUST)
+                    .add(rangeQuery, BooleanClause.Occur.FILTER)
+                    .build();
+                Weight conjunctionWeight = searcher.createWeight(searcher.rewrite(conjunction), ScoreMode.COMPLETE_NO_SCORES, 1f);
+                assertNull(conjunctionWeight.scorerSupplier(reader.leaves().get(0)));
+                assertNotNull(conjunctionWeight.scorerSupplier(reader.leaves().get(1)));
+                assertEquals(10, searcher.count(conjunction));
+            }
+        }
+    }
+
+    private static void indexDocs(IndexWriter w, long from, long to) throws IOException {
+        for (long value = from; value < to; value++) {
+            Document doc = new Document();
+            doc.add(new LongPoint("field", value));
+            w.addDocument(doc);
+        }
+        w.commit();
+    }
+
+    private static void indexDocsWithDocValues(IndexWriter w, long from, long to) throws IOException {
+        for (long value = from; value < to; value++) {
+            Document doc = new Document();
+            doc.add(new LongPoint("field", value));
+            doc.add(new SortedNumericDocValuesField("field", value));
+            w.addDocument(doc);
+        }
+        w.commit();
+    }
+}